@@ -7,7 +7,9 @@ import app.audio.Collections.Podcast;
 import app.audio.Files.AudioFile;
 import app.audio.Files.Episode;
 import app.audio.Files.Song;
+import app.audio.EntryRegistry;
 import app.pages.Page;
+import app.searchBar.SearchIndex;
 import app.player.Player;
 import app.user.User;
 import app.user.Artist;
@@ -37,6 +39,7 @@ import java.util.HashSet;
 import java.util.Objects;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.stream.Collectors;
@@ -45,16 +48,24 @@ import java.util.stream.Stream;
 /**
  * The type Admin.
  */
-public final class Admin {
+public final class Admin implements AutoCloseable {
+    /** The number of unseen notifications kept for every user, by default. */
+    public static final int DEFAULT_INBOX_RETENTION = 1024;
+
     @Getter
     private List<User> users = new ArrayList<>();
     @Getter
-    @Setter
     private List<Artist> artists = new ArrayList<>();
     @Getter
     private List<Host> hosts = new ArrayList<>();
+    // every normal user, artist and host by username, kept in sync with the lists above
+    private final Map<String, UserAbstract> accounts = new HashMap<>();
     private List<Song> songs = new ArrayList<>();
+    @Getter
+    private SearchIndex searchIndex = new SearchIndex();
     private List<Podcast> podcasts = new ArrayList<>();
+    // the likes of the songs in this session, the library songs being shared
+    private final Map<Song, Integer> songLikes = new IdentityHashMap<>();
     private int timestamp = 0;
     private final int limit = 5;
     private final int dateStringLength = 10;
@@ -67,33 +78,52 @@ public final class Admin {
     private final int dateDayHigherLimit = 31;
     private final int dateFebHigherLimit = 28;
     private final double roundTool = 100.0;
-    private final double premiumPrice = 1000000;
-    private final int resetedOnce = -1;
-    private NotificationManager notificationManager = new NotificationManager();
+    @Getter
+    private final NotificationManager notificationManager = new NotificationManager();
+    private final PlaybackScheduler scheduler = new PlaybackScheduler();
+    @Getter
+    private final EntryRegistry entryRegistry = new EntryRegistry();
+    @Getter
+    private final Monetization monetization = new Monetization(this);
     @Setter
     private Song ad;
-    private static Admin instance;
+    // the number of unseen notifications kept for every user
+    @Getter
+    private final int inboxRetention;
 
-    private Admin() {
+    /**
+     * Instantiates a new Admin, the state of a single run (session), with the default
+     * inbox retention.
+     */
+    public Admin() {
+        this(DEFAULT_INBOX_RETENTION);
     }
 
     /**
-     * Gets instance.
+     * Instantiates a new Admin, the state of a single run (session).
      *
-     * @return the instance
+     * @param inboxRetention the number of unseen notifications kept for every user,
+     *                       at least one
      */
-    public static Admin getInstance() {
-        if (instance == null) {
-            instance = new Admin();
-        }
-        return instance;
+    public Admin(final int inboxRetention) {
+        this.inboxRetention = inboxRetention;
     }
 
     /**
-     * Reset instance.
+     * Loads the shared catalog in a new session: the session gets its own users, while
+     * the songs, the podcasts and their search indexes are shared.
+     *
+     * @param catalog the library snapshot
      */
-    public static void resetInstance() {
-        instance = null;
+    public void loadCatalog(final Catalog catalog) {
+        searchIndex = new SearchIndex(catalog.getIndex());
+        for (Catalog.Account account : catalog.getUsers()) {
+            addUser(account.getUsername(), account.getAge(), account.getCity());
+        }
+        songs.addAll(catalog.getSongs());
+        setAd();
+
+        podcasts.addAll(catalog.getPodcasts());
     }
 
     /**
@@ -103,10 +133,18 @@ public final class Admin {
      */
     public void setUsers(final List<UserInput> userInputList) {
         for (UserInput userInput : userInputList) {
-            users.add(new User(userInput.getUsername(), userInput.getAge(), userInput.getCity()));
+            addUser(userInput.getUsername(), userInput.getAge(), userInput.getCity());
         }
     }
 
+    private void addUser(final String username, final int age, final String city) {
+        User user = new User(username, age, city, this);
+        users.add(user);
+        accounts.put(user.getUsername(), user);
+        searchIndex.addAccount(user);
+        scheduler.add(user);
+    }
+
     /**
      * Sets songs.
      *
@@ -117,6 +155,7 @@ public final class Admin {
             songs.add(new Song(songInput.getName(), songInput.getDuration(), songInput.getAlbum(),
                     songInput.getTags(), songInput.getLyrics(), songInput.getGenre(),
                     songInput.getReleaseYear(), songInput.getArtist()));
+            searchIndex.addSong(songs.get(songs.size() - 1));
         }
     }
 
@@ -149,9 +188,38 @@ public final class Admin {
                                          episodeInput.getDescription()));
             }
             podcasts.add(new Podcast(podcastInput.getName(), podcastInput.getOwner(), episodes));
+            searchIndex.addPodcast(podcasts.get(podcasts.size() - 1));
         }
     }
 
+    /**
+     * Gets the likes of a song in this session.
+     *
+     * @param song the song
+     * @return the number of likes
+     */
+    public int getLikes(final Song song) {
+        return songLikes.getOrDefault(song, 0);
+    }
+
+    /**
+     * Likes a song.
+     *
+     * @param song the song
+     */
+    public void like(final Song song) {
+        songLikes.merge(song, 1, Integer::sum);
+    }
+
+    /**
+     * Dislikes a song.
+     *
+     * @param song the song
+     */
+    public void dislike(final Song song) {
+        songLikes.merge(song, -1, Integer::sum);
+    }
+
     /**
      * Gets songs.
      *
@@ -214,10 +282,11 @@ public final class Admin {
      * @return the user
      */
     public User getUser(final String username) {
-        return users.stream()
-                    .filter(user -> user.getUsername().equals(username))
-                    .findFirst()
-                    .orElse(null);
+        if (accounts.get(username) instanceof User user) {
+            scheduler.sync(user);
+            return user;
+        }
+        return null;
     }
 
     /**
@@ -227,10 +296,7 @@ public final class Admin {
      * @return the artist
      */
     public Artist getArtist(final String username) {
-        return artists.stream()
-                .filter(artist -> artist.getUsername().equals(username))
-                .findFirst()
-                .orElse(null);
+        return accounts.get(username) instanceof Artist artist ? artist : null;
     }
 
     /**
@@ -240,10 +306,7 @@ public final class Admin {
      * @return the host
      */
     public Host getHost(final String username) {
-        return hosts.stream()
-                .filter(artist -> artist.getUsername().equals(username))
-                .findFirst()
-                .orElse(null);
+        return accounts.get(username) instanceof Host host ? host : null;
     }
 
     /**
@@ -261,20 +324,15 @@ public final class Admin {
             throw new IllegalArgumentException("Invalid timestamp" + newTimestamp);
         }
 
-        users.forEach(user -> user.simulateTime(elapsed));
+        scheduler.advance(newTimestamp);
     }
 
     private UserAbstract getAbstractUser(final String username) {
-        ArrayList<UserAbstract> allUsers = new ArrayList<>();
-
-        allUsers.addAll(users);
-        allUsers.addAll(artists);
-        allUsers.addAll(hosts);
-
-        return allUsers.stream()
-                       .filter(userPlatform -> userPlatform.getUsername().equals(username))
-                       .findFirst()
-                       .orElse(null);
+        UserAbstract account = accounts.get(username);
+        if (account instanceof User user) {
+            scheduler.sync(user);
+        }
+        return account;
     }
 
     /**
@@ -294,18 +352,17 @@ public final class Admin {
             return "The username %s is already taken.".formatted(username);
         }
 
-        if (type.equals("user")) {
-            User user = (User) UserFactory.createUser(type, username, age, city);
+        UserAbstract newUser = UserFactory.createUser(type, username, age, city, this);
+        if (newUser instanceof User user) {
             users.add(user);
-
-            // update the list of observers in notification manager
-            notificationManager.addObserver(user);
-        } else if (type.equals("artist")) {
-            Artist artist = (Artist) UserFactory.createUser(type, username, age, city);
+            scheduler.add(user);
+        } else if (newUser instanceof Artist artist) {
             artists.add(artist);
         } else {
-            hosts.add((Host) UserFactory.createUser(type, username, age, city));
+            hosts.add((Host) newUser);
         }
+        accounts.put(username, newUser);
+        searchIndex.addAccount(newUser);
 
         return "The username %s has been added successfully.".formatted(username);
     }
@@ -343,16 +400,21 @@ public final class Admin {
             return "%s can't be deleted.".formatted(user.getUsername());
         }
 
-        user.getLikedSongs().forEach(Song::dislike);
-        user.getFollowedPlaylists().forEach(Playlist::decreaseFollowers);
+        user.getLikedSongs().forEach(this::dislike);
+        user.getFollowedPlaylists().forEach(searchIndex::decreaseFollowers);
 
         users.stream().filter(otherUser -> otherUser != user)
              .forEach(otherUser -> otherUser.getFollowedPlaylists()
                                             .removeAll(user.getPlaylists()));
 
         users.remove(user);
+        accounts.remove(user.getUsername());
+        user.getPlaylists().forEach(searchIndex::removePlaylist);
+        searchIndex.removeAccount(user);
+        scheduler.remove(user);
+        monetization.remove(user.getPlayer().getRecordedSongs());
 
-        notificationManager.rmObserver(user);
+        notificationManager.rmObserver(user, user.getSubscriptions());
 
         return "%s was successfully deleted.".formatted(user.getUsername());
     }
@@ -365,7 +427,10 @@ public final class Admin {
         }
 
         host.getPodcasts().forEach(podcast -> podcasts.remove(podcast));
+        host.getPodcasts().forEach(searchIndex::removePodcast);
         hosts.remove(host);
+        accounts.remove(host.getUsername());
+        searchIndex.removeAccount(host);
 
         return "%s was successfully deleted.".formatted(host.getUsername());
     }
@@ -384,7 +449,11 @@ public final class Admin {
         })));
 
         songs.removeAll(artist.getAllSongs());
+        artist.getAllSongs().forEach(searchIndex::removeSong);
         artists.remove(artist);
+        accounts.remove(artist.getUsername());
+        artist.getAlbums().forEach(searchIndex::removeAlbum);
+        searchIndex.removeAccount(artist);
         return "%s was successfully deleted.".formatted(artist.getUsername());
     }
 
@@ -429,12 +498,14 @@ public final class Admin {
         }
 
         songs.addAll(newSongs);
+        newSongs.forEach(searchIndex::addSong);
         Album album = new Album(albumName,
                 commandInput.getDescription(),
                 username,
                 newSongs,
                 commandInput.getReleaseYear());
         currentArtist.getAlbums().add(album);
+        searchIndex.addAlbum(currentArtist, album);
 
         // real time notification
         Notification notification = new Notification("New Album",
@@ -485,9 +556,11 @@ public final class Admin {
                 user.getPlaylists().forEach(playlist -> playlist.removeSong(song));
             });
             songs.remove(song);
+            searchIndex.removeSong(song);
         }
 
         currentArtist.getAlbums().remove(searchedAlbum);
+        searchIndex.removeAlbum(searchedAlbum);
         return "%s deleted the album successfully.".formatted(username);
     }
 
@@ -530,6 +603,7 @@ public final class Admin {
         Podcast newPodcast = new Podcast(podcastName, username, episodes);
         currentHost.getPodcasts().add(newPodcast);
         podcasts.add(newPodcast);
+        searchIndex.addPodcast(newPodcast);
 
         Notification notification = new Notification("New Podcast",
                 "New Podcast from " + username + ".");
@@ -569,6 +643,7 @@ public final class Admin {
 
         currentHost.getPodcasts().remove(searchedPodcast);
         podcasts.remove(searchedPodcast);
+        searchIndex.removePodcast(searchedPodcast);
         return "%s deleted the podcast successfully.".formatted(username);
     }
 
@@ -936,7 +1011,7 @@ public final class Admin {
 
         final Map<Album, Integer> albumLikes = new HashMap<>();
         albums.forEach(album -> albumLikes.put(album, album.getSongs().stream()
-                                          .map(Song::getLikes).reduce(0, Integer::sum)));
+                                          .map(this::getLikes).reduce(0, Integer::sum)));
 
         return albums.stream().sorted((o1, o2) -> {
             if ((int) albumLikes.get(o1) == albumLikes.get(o2)) {
@@ -954,7 +1029,7 @@ public final class Admin {
     public List<String> getTop5ArtistList() {
         final Map<Artist, Integer> artistLikes = new HashMap<>();
         artists.forEach(artist -> artistLikes.put(artist, artist.getAllSongs().stream()
-                                              .map(Song::getLikes).reduce(0, Integer::sum)));
+                                              .map(this::getLikes).reduce(0, Integer::sum)));
 
         return artists.stream().sorted(Comparator.comparingInt(artistLikes::get).reversed())
                                .limit(limit).map(Artist::getUsername).toList();
@@ -967,7 +1042,7 @@ public final class Admin {
      */
     public List<String> getTop5Songs() {
         List<Song> sortedSongs = new ArrayList<>(songs);
-        sortedSongs.sort(Comparator.comparingInt(Song::getLikes).reversed());
+        sortedSongs.sort(Comparator.comparingInt(this::getLikes).reversed());
         List<String> topSongs = new ArrayList<>();
         int count = 0;
         for (Song song : sortedSongs) {
@@ -1014,242 +1089,30 @@ public final class Admin {
 
     /**
      * Updates the lists with delete and sort operations, also
-     * calculating the song revenue for each active artist and
+     * settling the song revenue of the listens still unpaid and
      * sorting the list with total revenue critter
      *
      * @param activeArtists the empty set
      */
     public void setActiveArtists(final ArrayList<Artist> activeArtists) {
+        for (User user: users) {
+            monetization.close(user.getPlayer().getRecordedSongs());
+        }
+
         for (Artist artist: artists) {
             if (artist.getListens() > 0 || artist.totalRevenue() > 0) {
                 activeArtists.add(artist);
             }
         }
 
-        activeArtists.sort(Comparator.comparing(Artist::getUsername));
+        // decreasing total revenue, then lexicographical order
+        activeArtists.sort(Comparator.comparingDouble(Artist::totalRevenue).reversed()
+                                     .thenComparing(Artist::getUsername));
 
         int rank = 1;
         for (Artist artist: activeArtists) {
             artist.setRanking(rank++);
         }
-
-        calculateSongRevenues(activeArtists);
-
-        int len = activeArtists.size();
-        for (int i = 0; i < len - 1; i++) {
-            for (int j = i + 1; j < len; j++) {
-                Artist artistI = activeArtists.get(i);
-                Artist artistJ = activeArtists.get(j);
-                if (artistI.totalRevenue() < artistJ.totalRevenue()) {
-                    int rankI = artistI.getRanking();
-                    artistI.setRanking(artistJ.getRanking());
-                    artistJ.setRanking(rankI);
-                    activeArtists.set(i, artistJ);
-                    activeArtists.set(j, artistI);
-                }
-            }
-        }
-    }
-
-    /**
-     * Calculates revenues from premium listens and updates the recordedSongs lists
-     *
-     * @param artist the artist
-     */
-    public void calculatePremiumRevenues(final Artist artist) {
-        for (User user: users) {
-            ArrayList<Song> recordedSongs = user.getPlayer().getRecordedSongs();
-
-            int totalSongs = recordedSongs.size(), start = resetedOnce;
-            int songArtist = 0, songTotal = 0;
-            double premiumRevenue;
-
-            for (int i = 0; i < totalSongs; i++) {
-                Song song = recordedSongs.get(i);
-                if (song.isPremiumListen()) {
-                    songTotal++;
-                }
-
-                if (start == resetedOnce && song.isPremiumListen()) {
-                    start = i;
-                }
-
-                if (song.isPremiumListen() && song.getArtist().equals(artist.getUsername())) {
-                    songArtist++;
-                }
-
-                if ((!song.isPremiumListen() || i == totalSongs - 1)
-                        && songTotal != 0) {
-                    premiumRevenue = premiumPrice * songArtist / songTotal;
-
-                    double currentRevenue;
-                    for (int j = start; j < i; j++) {
-                        Song songItr = recordedSongs.get(j);
-                        if (!songItr.getArtist().equals(artist.getUsername())) {
-                            continue;
-                        }
-
-                        if (!songItr.isPremiumListen()) {
-                            continue;
-                        }
-
-                        currentRevenue = songItr.getRevenue();
-                        songItr.setRevenue(currentRevenue + premiumRevenue
-                                / songTotal);
-                    }
-
-                    Song songItr = recordedSongs.get(i);
-                    if (i == totalSongs - 1 && songItr.isPremiumListen()
-                            && songItr.getArtist().equals(artist.getUsername())) {
-
-                        currentRevenue = recordedSongs.get(i).getRevenue();
-                        recordedSongs.get(i).setRevenue(currentRevenue + premiumRevenue
-                                / songTotal);
-                    }
-
-                    artist.setSongRevenue(artist.getSongRevenue() + premiumRevenue);
-                    songTotal = 0;
-                    songArtist = 0;
-                    start = resetedOnce;
-                }
-            }
-        }
-    }
-
-    /**
-     * Calculates revenues from ads
-     *
-     * @param artist the artist
-     */
-    public void calculateAdRevenues(final Artist artist) {
-        for (User user: users) {
-            ArrayList<Song> recordedSongs = user.getPlayer().getRecordedSongs();
-            int totalSongs = recordedSongs.size();
-            int start = 0;
-            int songLast = 0, songArtist = 0;
-            double adRevenue;
-
-            for (int i = 0; i < totalSongs; i++) {
-                Song song = recordedSongs.get(i);
-                if (!song.isPremiumListen() && song.getArtist().equals(artist.getUsername())) {
-                    songArtist++;
-                }
-
-                if (!song.isPremiumListen() && !song.getName().equals("Ad Break")) {
-                    songLast++;
-                }
-
-                if (song.getName().equals("Ad Break") && songLast != 0) {
-                    adRevenue = ((double) song.getPrice()) * songArtist / songLast;
-
-                    double currentRevenue;
-                    for (int j = start; j < i; j++) {
-                        Song songItr = recordedSongs.get(j);
-                        if (songItr.isPremiumListen() || songItr.getName().equals("Ad Break")) {
-                            continue;
-                        }
-
-                        currentRevenue = recordedSongs.get(j).getRevenue();
-                        recordedSongs.get(j).setRevenue(currentRevenue + adRevenue / songLast);
-                    }
-
-                    if (i == totalSongs - 1 && !recordedSongs.get(i).isPremiumListen()
-                        && !recordedSongs.get(i).getName().equals("Ad Break")) {
-
-                        currentRevenue = recordedSongs.get(i).getRevenue();
-                        recordedSongs.get(i).setRevenue(currentRevenue + adRevenue / songLast);
-                    }
-
-                    artist.setSongRevenue(artist.getSongRevenue() + adRevenue);
-                    start = i + 1;
-                    songLast = 0;
-                    songArtist = 0;
-                }
-            }
-        }
-    }
-
-    /**
-     * Updates song revenues and most profitable songs based on what
-     * users listened.
-     *
-     * @param activeArtists the arraylist of active artists
-     */
-    public void calculateSongRevenues(final ArrayList<Artist> activeArtists) {
-        for (Artist artist: activeArtists) {
-            calculatePremiumRevenues(artist);
-            calculateAdRevenues(artist);
-        }
-
-        for (Artist artist: activeArtists) {
-            updateMostProfitableSong(artist);
-        }
-    }
-
-    /**
-     * If the song exist in artistSongs, it increases the revenue.
-     * Otherwise, the song is added in the list.
-     *
-     * @param song the song
-     * @param artistSongs the list of artist songs
-     */
-    public void addSongRevenue(final Song song, final ArrayList<Song> artistSongs) {
-        for (Song songItr: artistSongs) {
-            if (song.getName().equals(songItr.getName())) {
-                songItr.setRevenue(songItr.getRevenue() + song.getRevenue());
-                return;
-            }
-        }
-
-        artistSongs.add(song);
-    }
-
-    /**
-     * Based on the revenues from recordedSongs, the most profitable
-     * song per artist is updated
-     *
-     * @param artist the artists
-     */
-    public void updateMostProfitableSong(final Artist artist) {
-        ArrayList<Song> artistSongs = new ArrayList<>();
-
-        for (User user: users) {
-            ArrayList<Song> recordedSongs = user.getPlayer().getRecordedSongs();
-
-            recordedSongs.removeIf(song -> song.getName().equals("Ad Break"));
-
-            for (Song song: recordedSongs) {
-                if (song.getArtist().equals(artist.getUsername())) {
-                    addSongRevenue(song, artistSongs);
-                }
-            }
-        }
-
-        String mostProfitableSong = getMostProfitableSong(artistSongs);
-        artist.setMostProfitableSong(mostProfitableSong);
-    }
-
-    /**
-     * Calculates the most profitable song, considering it's revenue
-     * Equality case, then lexicographical order
-     *
-     * @param artistSongs the list of the artist songs listened by users
-     * @return the most profitable song
-     */
-    private String getMostProfitableSong(final ArrayList<Song> artistSongs) {
-        String mostProfitableSong = "N/A";
-        double biggestRevenue = 0;
-
-        for (Song artistSong : artistSongs) {
-            if (artistSong.getRevenue() > biggestRevenue) {
-                mostProfitableSong = artistSong.getName();
-                biggestRevenue = artistSong.getRevenue();
-            } else if (artistSong.getRevenue() == biggestRevenue && biggestRevenue != 0
-                        && artistSong.getName().compareTo(mostProfitableSong) < 0) {
-                mostProfitableSong = artistSong.getName();
-            }
-        }
-        return mostProfitableSong;
     }
 
     /**
@@ -1286,13 +1149,12 @@ public final class Admin {
     }
 
     /**
-     * Adds the users from the library to the observers list
-     *
+     * Ends the session: waits for the notifications being delivered and stops the
+     * notification workers.
      */
-    public void initializeObservers() {
-        for (User user: users) {
-            notificationManager.addObserver(user);
-        }
+    @Override
+    public void close() {
+        notificationManager.close();
     }
 
     /**
@@ -0,0 +1,90 @@
+package app;
+
+import app.audio.Collections.Podcast;
+import app.audio.Files.Episode;
+import app.audio.Files.Song;
+import app.searchBar.CatalogIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fileio.input.LibraryInput;
+import fileio.input.LibrarySnapshot;
+import fileio.input.PodcastInput;
+import fileio.input.SongInput;
+import lombok.Getter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Read-only library, parsed once and shared by all sessions. The songs and podcasts
+ * are built and indexed for search once, here, and shared: they hold no session state
+ * (likes and listens are kept by every Admin) and their lists are immutable. The users
+ * keep the state of a session, so every Admin builds its own from the accounts.
+ */
+@Getter
+public final class Catalog {
+    private final List<Song> songs;
+    private final List<Podcast> podcasts;
+    private final List<Account> users;
+    private final CatalogIndex index;
+
+    /**
+     * A library user, as read from the library.
+     */
+    @Getter
+    public static final class Account {
+        private final String username;
+        private final int age;
+        private final String city;
+
+        Account(final String username, final int age, final String city) {
+            this.username = username;
+            this.age = age;
+            this.city = city;
+        }
+    }
+
+    /**
+     * Instantiates a new Catalog.
+     *
+     * @param library the parsed library
+     */
+    public Catalog(final LibraryInput library) {
+        songs = library.getSongs().stream().map(Catalog::song).toList();
+        podcasts = library.getPodcasts().stream().map(Catalog::podcast).toList();
+        users = library.getUsers().stream()
+                       .map(user -> new Account(user.getUsername(), user.getAge(),
+                                                user.getCity()))
+                       .toList();
+        index = new CatalogIndex(songs, podcasts);
+    }
+
+    /**
+     * Loads a library file, either a binary snapshot (.bin) or json.
+     *
+     * @param file the library file
+     * @return the catalog
+     * @throws IOException in case of exceptions to reading
+     */
+    public static Catalog load(final File file) throws IOException {
+        if (file.getName().endsWith(".bin")) {
+            return new Catalog(LibrarySnapshot.read(file));
+        }
+        return new Catalog(new ObjectMapper().readValue(file, LibraryInput.class));
+    }
+
+    private static Song song(final SongInput song) {
+        return new Song(song.getName(), song.getDuration(), song.getAlbum(), song.getTags(),
+                        song.getLyrics(), song.getGenre(), song.getReleaseYear(),
+                        song.getArtist());
+    }
+
+    private static Podcast podcast(final PodcastInput podcast) {
+        List<Episode> episodes = podcast.getEpisodes().stream()
+                                        .map(episode -> new Episode(episode.getName(),
+                                                                    episode.getDuration(),
+                                                                    episode.getDescription()))
+                                        .toList();
+        return new Podcast(podcast.getName(), podcast.getOwner(), episodes);
+    }
+}
@@ -26,18 +26,22 @@ public final class CommandRunner {
     /**
      * The Object mapper.
      */
-    private static ObjectMapper objectMapper = new ObjectMapper();
-    private static Admin admin;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Admin admin;
+    private final UserWrap userWrap = new UserWrap();
+    private final ArtistWrap artistWrap = new ArtistWrap();
+    private final HostWrap hostWrap = new HostWrap();
 
     /**
-     * Update admin.
+     * Instantiates a new Command runner for the session of an admin.
+     *
+     * @param admin the admin
      */
-    public static void updateAdmin() {
-        admin = Admin.getInstance();
-    }
-
-
-    private CommandRunner() {
+    public CommandRunner(final Admin admin) {
+        this.admin = admin;
+        userWrap.setEntryRegistry(admin.getEntryRegistry());
+        artistWrap.setEntryRegistry(admin.getEntryRegistry());
+        hostWrap.setEntryRegistry(admin.getEntryRegistry());
     }
 
     /**
@@ -46,7 +50,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode search(final CommandInput commandInput) {
+    public ObjectNode search(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         Filters filters = new Filters(commandInput.getFilters());
         String type = commandInput.getType();
@@ -74,7 +78,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode select(final CommandInput commandInput) {
+    public ObjectNode select(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
 
         String message = user.select(commandInput.getItemNumber());
@@ -94,7 +98,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode load(final CommandInput commandInput) {
+    public ObjectNode load(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         String message = user.load();
 
@@ -113,7 +117,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode playPause(final CommandInput commandInput) {
+    public ObjectNode playPause(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         String message = user.playPause();
 
@@ -132,7 +136,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode repeat(final CommandInput commandInput) {
+    public ObjectNode repeat(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         String message = user.repeat();
 
@@ -151,7 +155,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode shuffle(final CommandInput commandInput) {
+    public ObjectNode shuffle(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         Integer seed = commandInput.getSeed();
         String message = user.shuffle(seed);
@@ -171,7 +175,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode forward(final CommandInput commandInput) {
+    public ObjectNode forward(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         String message = user.forward();
 
@@ -190,7 +194,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode backward(final CommandInput commandInput) {
+    public ObjectNode backward(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         String message = user.backward();
 
@@ -209,7 +213,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode like(final CommandInput commandInput) {
+    public ObjectNode like(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         String message = user.like();
 
@@ -228,7 +232,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode next(final CommandInput commandInput) {
+    public ObjectNode next(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         String message = user.next();
 
@@ -247,7 +251,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode prev(final CommandInput commandInput) {
+    public ObjectNode prev(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         String message = user.prev();
 
@@ -266,7 +270,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode createPlaylist(final CommandInput commandInput) {
+    public ObjectNode createPlaylist(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         String message = user.createPlaylist(commandInput.getPlaylistName(),
                                              commandInput.getTimestamp());
@@ -286,7 +290,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode addRemoveInPlaylist(final CommandInput commandInput) {
+    public ObjectNode addRemoveInPlaylist(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         String message = user.addRemoveInPlaylist(commandInput.getPlaylistId());
 
@@ -305,7 +309,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode switchVisibility(final CommandInput commandInput) {
+    public ObjectNode switchVisibility(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         String message = user.switchPlaylistVisibility(commandInput.getPlaylistId());
 
@@ -324,7 +328,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode showPlaylists(final CommandInput commandInput) {
+    public ObjectNode showPlaylists(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         ArrayList<PlaylistOutput> playlists = user.showPlaylists();
 
@@ -343,7 +347,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode follow(final CommandInput commandInput) {
+    public ObjectNode follow(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         String message = user.follow();
 
@@ -362,7 +366,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode status(final CommandInput commandInput) {
+    public ObjectNode status(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         PlayerStats stats = user.getPlayerStats();
 
@@ -381,7 +385,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode showLikedSongs(final CommandInput commandInput) {
+    public ObjectNode showLikedSongs(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         ArrayList<String> songs = user.showPreferredSongs();
 
@@ -400,7 +404,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the preferred genre
      */
-    public static ObjectNode getPreferredGenre(final CommandInput commandInput) {
+    public ObjectNode getPreferredGenre(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         String preferredGenre = user.getPreferredGenre();
 
@@ -419,7 +423,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode switchConnectionStatus(final CommandInput commandInput) {
+    public ObjectNode switchConnectionStatus(final CommandInput commandInput) {
         String message = admin.switchStatus(commandInput.getUsername());
         ObjectNode objectNode = objectMapper.createObjectNode();
         objectNode.put("command", commandInput.getCommand());
@@ -436,7 +440,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode addUser(final CommandInput commandInput) {
+    public ObjectNode addUser(final CommandInput commandInput) {
         String message = admin.addNewUser(commandInput);
         ObjectNode objectNode = objectMapper.createObjectNode();
         objectNode.put("command", commandInput.getCommand());
@@ -453,7 +457,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode deleteUser(final CommandInput commandInput) {
+    public ObjectNode deleteUser(final CommandInput commandInput) {
         String message = admin.deleteUser(commandInput.getUsername());
         ObjectNode objectNode = objectMapper.createObjectNode();
         objectNode.put("command", commandInput.getCommand());
@@ -470,7 +474,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode addAlbum(final CommandInput commandInput) {
+    public ObjectNode addAlbum(final CommandInput commandInput) {
         String message = admin.addAlbum(commandInput);
         ObjectNode objectNode = objectMapper.createObjectNode();
         objectNode.put("command", commandInput.getCommand());
@@ -487,7 +491,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode removeAlbum(final CommandInput commandInput) {
+    public ObjectNode removeAlbum(final CommandInput commandInput) {
         String message = admin.removeAlbum(commandInput);
         ObjectNode objectNode = objectMapper.createObjectNode();
         objectNode.put("command", commandInput.getCommand());
@@ -504,7 +508,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode showAlbums(final CommandInput commandInput) {
+    public ObjectNode showAlbums(final CommandInput commandInput) {
         Artist artist = admin.getArtist(commandInput.getUsername());
         ArrayList<AlbumOutput> albums = artist.showAlbums();
 
@@ -523,7 +527,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode addEvent(final CommandInput commandInput) {
+    public ObjectNode addEvent(final CommandInput commandInput) {
         String message = admin.addEvent(commandInput);
         ObjectNode objectNode = objectMapper.createObjectNode();
         objectNode.put("command", commandInput.getCommand());
@@ -540,7 +544,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode removeEvent(final CommandInput commandInput) {
+    public ObjectNode removeEvent(final CommandInput commandInput) {
         String message = admin.removeEvent(commandInput);
         ObjectNode objectNode = objectMapper.createObjectNode();
         objectNode.put("command", commandInput.getCommand());
@@ -557,7 +561,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode addPodcast(final CommandInput commandInput) {
+    public ObjectNode addPodcast(final CommandInput commandInput) {
         String message = admin.addPodcast(commandInput);
         ObjectNode objectNode = objectMapper.createObjectNode();
         objectNode.put("command", commandInput.getCommand());
@@ -574,7 +578,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode removePodcast(final CommandInput commandInput) {
+    public ObjectNode removePodcast(final CommandInput commandInput) {
         String message = admin.removePodcast(commandInput);
         ObjectNode objectNode = objectMapper.createObjectNode();
         objectNode.put("command", commandInput.getCommand());
@@ -591,7 +595,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode showPodcasts(final CommandInput commandInput) {
+    public ObjectNode showPodcasts(final CommandInput commandInput) {
         Host host = admin.getHost(commandInput.getUsername());
         List<PodcastOutput> podcasts = host.getPodcasts().stream().map(PodcastOutput::new).toList();
 
@@ -610,7 +614,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode addMerch(final CommandInput commandInput) {
+    public ObjectNode addMerch(final CommandInput commandInput) {
         String message = admin.addMerch(commandInput);
         ObjectNode objectNode = objectMapper.createObjectNode();
         objectNode.put("command", commandInput.getCommand());
@@ -627,7 +631,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode addAnnouncement(final CommandInput commandInput) {
+    public ObjectNode addAnnouncement(final CommandInput commandInput) {
         String message = admin.addAnnouncement(commandInput);
         ObjectNode objectNode = objectMapper.createObjectNode();
         objectNode.put("command", commandInput.getCommand());
@@ -644,7 +648,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode removeAnnouncement(final CommandInput commandInput) {
+    public ObjectNode removeAnnouncement(final CommandInput commandInput) {
         String message = admin.removeAnnouncement(commandInput);
         ObjectNode objectNode = objectMapper.createObjectNode();
         objectNode.put("command", commandInput.getCommand());
@@ -661,7 +665,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the online users
      */
-    public static ObjectNode getOnlineUsers(final CommandInput commandInput) {
+    public ObjectNode getOnlineUsers(final CommandInput commandInput) {
         List<String> onlineUsers = admin.getOnlineUsers();
         ObjectNode objectNode = objectMapper.createObjectNode();
         objectNode.put("command", commandInput.getCommand());
@@ -677,7 +681,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the all users
      */
-    public static ObjectNode getAllUsers(final CommandInput commandInput) {
+    public ObjectNode getAllUsers(final CommandInput commandInput) {
         List<String> users = admin.getAllUsers();
         ObjectNode objectNode = objectMapper.createObjectNode();
         objectNode.put("command", commandInput.getCommand());
@@ -693,7 +697,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode changePage(final CommandInput commandInput) {
+    public ObjectNode changePage(final CommandInput commandInput) {
         String message = admin.changePage(commandInput);
         ObjectNode objectNode = objectMapper.createObjectNode();
         objectNode.put("command", commandInput.getCommand());
@@ -710,7 +714,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode printCurrentPage(final CommandInput commandInput) {
+    public ObjectNode printCurrentPage(final CommandInput commandInput) {
         String message = admin.printCurrentPage(commandInput);
         ObjectNode objectNode = objectMapper.createObjectNode();
         objectNode.put("user", commandInput.getUsername());
@@ -727,7 +731,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the top 5 album list
      */
-    public static ObjectNode getTop5AlbumList(final CommandInput commandInput) {
+    public ObjectNode getTop5AlbumList(final CommandInput commandInput) {
         List<String> albums = admin.getTop5AlbumList();
         ObjectNode objectNode = objectMapper.createObjectNode();
         objectNode.put("command", commandInput.getCommand());
@@ -743,7 +747,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the top 5 artist list
      */
-    public static ObjectNode getTop5ArtistList(final CommandInput commandInput) {
+    public ObjectNode getTop5ArtistList(final CommandInput commandInput) {
         List<String> artists = admin.getTop5ArtistList();
         ObjectNode objectNode = objectMapper.createObjectNode();
         objectNode.put("command", commandInput.getCommand());
@@ -759,7 +763,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the top 5 songs
      */
-    public static ObjectNode getTop5Songs(final CommandInput commandInput) {
+    public ObjectNode getTop5Songs(final CommandInput commandInput) {
         List<String> songs = admin.getTop5Songs();
 
         ObjectNode objectNode = objectMapper.createObjectNode();
@@ -776,7 +780,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the top 5 playlists
      */
-    public static ObjectNode getTop5Playlists(final CommandInput commandInput) {
+    public ObjectNode getTop5Playlists(final CommandInput commandInput) {
         List<String> playlists = admin.getTop5Playlists();
 
         ObjectNode objectNode = objectMapper.createObjectNode();
@@ -793,20 +797,15 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node (message or complex data structure)
      */
-    public static ObjectNode wrapped(final CommandInput commandInput) {
+    public ObjectNode wrapped(final CommandInput commandInput) {
         StringBuilder message = new StringBuilder();
 
         ObjectMapper objectMapperWrap = new ObjectMapper();
         ObjectNode result = objectMapperWrap.createObjectNode();
 
         User user = admin.getUser(commandInput.getUsername());
-        UserWrap userWrap = UserWrap.getInstance();
-
         Artist artist = admin.getArtist(commandInput.getUsername());
-        ArtistWrap artistWrap = ArtistWrap.getInstance();
-
         Host host = admin.getHost(commandInput.getUsername());
-        HostWrap hostWrap = HostWrap.getInstance();
 
         if (user != null && user.getPlayer() != null) {
             userWrap.setUsername(commandInput.getUsername());
@@ -861,7 +860,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode updateRecommendations(final CommandInput commandInput) {
+    public ObjectNode updateRecommendations(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         Artist artist = admin.getArtist(commandInput.getUsername());
         Host host = admin.getHost(commandInput.getUsername());
@@ -897,7 +896,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode previousPage(final CommandInput commandInput) {
+    public ObjectNode previousPage(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         Artist artist = admin.getArtist(commandInput.getUsername());
         Host host = admin.getHost(commandInput.getUsername());
@@ -929,7 +928,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode nextPage(final CommandInput commandInput) {
+    public ObjectNode nextPage(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         Artist artist = admin.getArtist(commandInput.getUsername());
         Host host = admin.getHost(commandInput.getUsername());
@@ -961,7 +960,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode loadRecommendations(final CommandInput commandInput) {
+    public ObjectNode loadRecommendations(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         String message = user.loadRecommendations();
 
@@ -979,7 +978,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode subscribe(final CommandInput commandInput) {
+    public ObjectNode subscribe(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         String message;
 
@@ -1004,7 +1003,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode getNotifications(final CommandInput commandInput) {
+    public ObjectNode getNotifications(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
 
         List<Notification> notifications = user.getNotifications();
@@ -1024,7 +1023,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode buyMerch(final CommandInput commandInput) {
+    public ObjectNode buyMerch(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         String message;
 
@@ -1049,7 +1048,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode seeMerch(final CommandInput commandInput) {
+    public ObjectNode seeMerch(final CommandInput commandInput) {
         ObjectNode objectNode = objectMapper.createObjectNode();
         objectNode.put("command", commandInput.getCommand());
         objectNode.put("user", commandInput.getUsername());
@@ -1075,7 +1074,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode buyPremium(final CommandInput commandInput) {
+    public ObjectNode buyPremium(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         String message;
 
@@ -1106,7 +1105,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode cancelPremium(final CommandInput commandInput) {
+    public ObjectNode cancelPremium(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         String message;
 
@@ -1137,7 +1136,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode adBreak(final CommandInput commandInput) {
+    public ObjectNode adBreak(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         String message;
 
@@ -0,0 +1,267 @@
+package app;
+
+import app.audio.RecordedEntry;
+import app.player.ListenLog;
+import app.user.Artist;
+import app.utils.IntCounter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits the song revenues to the artists while the users listen.
+ *
+ * <p>A run of premium listens is paid when it ends (the next free listen or the end
+ * of the program) and an ad price is paid when the ad is listened, both to all the
+ * artists of the run at once. Until then, a user only keeps the listens of the open
+ * premium run and ad break, counted by the artist of the song when it was listened and
+ * by entry, so the listen logs are emptied as soon as they are read and the artist
+ * revenues are up to date between ads.
+ *
+ * <p>What was paid for the listens of every user is also kept by artist and song, so
+ * it can be taken back when the user is deleted.
+ */
+public final class Monetization {
+    private static final double PREMIUM_PRICE = 1000000;
+    private static final String AD_NAME = "Ad Break";
+
+    private final Admin admin;
+    // by listen log, in the order the users first listened
+    private final Map<ListenLog, Window> windows = new LinkedHashMap<>();
+
+    // the unpaid listens of a user
+    private static final class Window {
+        // premium listens since the last free listen, of artists by entry id
+        private final Map<Artist, IntCounter> run = new HashMap<>();
+        private int runTotal = 0;
+        // free listens (ads included) since the last paid ad, of artists by entry id
+        private final Map<Artist, IntCounter> adBreak = new HashMap<>();
+        private int breakTotal = 0;
+        // what the listens of the user paid to every artist
+        private final Map<Artist, Credit> credits = new HashMap<>();
+    }
+
+    // the revenue paid to an artist and to its songs, by entry id
+    private static final class Credit {
+        private double revenue = 0;
+        private final Map<Integer, Double> songs = new LinkedHashMap<>();
+    }
+
+    /**
+     * Instantiates the monetization of a session.
+     *
+     * @param admin the admin of the session, resolving the artists
+     */
+    public Monetization(final Admin admin) {
+        this.admin = admin;
+    }
+
+    /**
+     * Reads the new listens of a user, paying the premium runs and ad breaks they end.
+     *
+     * @param listens the listen log of the user, emptied
+     */
+    public void settle(final ListenLog listens) {
+        settle(listens, 1);
+    }
+
+    /**
+     * Reads the new listens of a user, listened a number of times in a row (the whole
+     * cycles of a repeating source). Without ads and with a single premium status, the
+     * repetitions pay the same as the listens counted that many times, so they are read
+     * once; otherwise the log is read again for every repetition.
+     *
+     * @param listens the listen log of the user, emptied
+     * @param times the number of repetitions
+     */
+    public void settle(final ListenLog listens, final int times) {
+        Window window = windows.computeIfAbsent(listens, log -> new Window());
+
+        if (times == 1 || isUniform(listens)) {
+            for (int i = 0; i < listens.size(); i++) {
+                listen(window, listens, i, times);
+            }
+        } else {
+            for (int repetition = 0; repetition < times; repetition++) {
+                for (int i = 0; i < listens.size(); i++) {
+                    listen(window, listens, i, 1);
+                }
+            }
+        }
+
+        listens.clear();
+    }
+
+    /**
+     * Settles a user at the end of the program, paying the premium run still open.
+     *
+     * @param listens the listen log of the user
+     */
+    public void close(final ListenLog listens) {
+        settle(listens);
+
+        Window window = windows.get(listens);
+        if (window.runTotal != 0) {
+            payRun(window);
+        }
+    }
+
+    /**
+     * Forgets the listens of a deleted user: the unpaid ones are dropped and what the
+     * user paid is taken back from the artists and their songs.
+     *
+     * @param listens the listen log of the user
+     */
+    public void remove(final ListenLog listens) {
+        Window removed = windows.remove(listens);
+        if (removed == null) {
+            return;
+        }
+
+        removed.credits.forEach((artist, credit) -> {
+            artist.removeSongRevenue(credit.revenue);
+            credit.songs.forEach(artist::removeSongRevenue);
+        });
+    }
+
+    /**
+     * Gets the song revenue an artist was paid so far: the ended premium runs and the
+     * paid ad breaks, without the listens still open.
+     *
+     * @param username the username of the artist
+     * @return the settled song revenue, 0 if there is no such artist
+     */
+    public double getSettledRevenue(final String username) {
+        Artist artist = admin.getArtist(username);
+        return artist == null ? 0 : artist.getSongRevenue();
+    }
+
+    private void listen(final Window window, final ListenLog listens, final int index,
+                        final int times) {
+        int entryId = listens.getEntryId(index);
+        RecordedEntry entry = admin.getEntryRegistry().getEntry(entryId);
+        boolean ad = entry.getName().equals(AD_NAME);
+        // the listen pays the artist the song had when it was listened
+        Artist artist = admin.getArtist(entry.getCreator());
+
+        if (listens.isPremium(index)) {
+            count(window.run, artist, entryId, times);
+            window.runTotal += times;
+        } else {
+            count(window.adBreak, artist, entryId, times);
+            if (!ad) {
+                window.breakTotal += times;
+            }
+
+            if (window.runTotal != 0) {
+                payRun(window);
+            }
+        }
+
+        if (ad && window.breakTotal != 0) {
+            payBreak(window, listens.getPrice(index));
+        }
+    }
+
+    // no ads and a single premium status, the listens can be counted in bulk
+    private boolean isUniform(final ListenLog listens) {
+        for (int i = 0; i < listens.size(); i++) {
+            if (isAd(listens.getEntryId(i)) || listens.isPremium(i) != listens.isPremium(0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void payRun(final Window window) {
+        for (Map.Entry<Artist, IntCounter> listened : window.run.entrySet()) {
+            Artist artist = listened.getKey();
+            IntCounter entries = listened.getValue();
+            double revenue = PREMIUM_PRICE * total(entries) / window.runTotal;
+
+            paySong(window, artist, revenue);
+
+            // a premium listen is paid only by its artist
+            double share = revenue / window.runTotal;
+            for (int k = 0; k < entries.size(); k++) {
+                payEntry(window, artist, admin.getEntryRegistry().getEntry(entries.keyAt(k)),
+                         share * entries.countAt(k));
+            }
+        }
+
+        window.run.clear();
+        window.runTotal = 0;
+    }
+
+    private void payBreak(final Window window, final double price) {
+        List<Artist> artists = new ArrayList<>(window.adBreak.keySet());
+        artists.sort(Comparator.comparing(Artist::getUsername));
+
+        // every free listen gets the shares of all the artists, added in username order
+        double share = 0;
+        for (Artist artist : artists) {
+            double revenue = price * total(window.adBreak.get(artist)) / window.breakTotal;
+
+            paySong(window, artist, revenue);
+            share += revenue / window.breakTotal;
+        }
+
+        for (Artist artist : artists) {
+            IntCounter entries = window.adBreak.get(artist);
+            for (int k = 0; k < entries.size(); k++) {
+                RecordedEntry entry = admin.getEntryRegistry().getEntry(entries.keyAt(k));
+
+                if (!entry.getName().equals(AD_NAME)) {
+                    payEntry(window, artist, entry, share * entries.countAt(k));
+                }
+            }
+        }
+
+        window.adBreak.clear();
+        window.breakTotal = 0;
+    }
+
+    private static void paySong(final Window window, final Artist artist,
+                                final double revenue) {
+        Credit credit = window.credits.get(artist);
+        artist.addSongRevenue(revenue, credit == null);
+        if (credit == null) {
+            credit = new Credit();
+            window.credits.put(artist, credit);
+        }
+        credit.revenue += revenue;
+    }
+
+    private static void payEntry(final Window window, final Artist artist,
+                                 final RecordedEntry entry, final double revenue) {
+        // the artist was paid just before, for all its songs
+        Map<Integer, Double> songs = window.credits.get(artist).songs;
+        artist.addSongRevenue(entry.getId(), entry.getName(), revenue,
+                              !songs.containsKey(entry.getId()));
+        songs.merge(entry.getId(), revenue, Double::sum);
+    }
+
+    // counts the listens of a song, if it has an artist
+    private static void count(final Map<Artist, IntCounter> listens, final Artist artist,
+                              final int entryId, final int times) {
+        if (artist != null) {
+            listens.computeIfAbsent(artist, listened -> new IntCounter()).add(entryId, times);
+        }
+    }
+
+    private static int total(final IntCounter entries) {
+        int total = 0;
+        for (int k = 0; k < entries.size(); k++) {
+            total += entries.countAt(k);
+        }
+        return total;
+    }
+
+    private boolean isAd(final int entryId) {
+        return admin.getEntryRegistry().getEntry(entryId).getName().equals(AD_NAME);
+    }
+}
@@ -0,0 +1,119 @@
+package app;
+
+import app.player.Player;
+import app.user.User;
+
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Advances the players of a session only where something happens.
+ *
+ * <p>A playing user changes state (records, next track, stop) only when its current
+ * track ends, so the queue keeps the next track boundary of every playing user.
+ * Advancing the time simulates just the users whose boundary was reached; the
+ * others are caught up lazily, when a command reads them. Between two boundaries
+ * only the remaining duration of the current track changes, and that is only read
+ * through the user itself.
+ */
+public final class PlaybackScheduler {
+    private final PriorityQueue<Boundary> boundaries =
+            new PriorityQueue<>(Comparator.comparingInt(Boundary::getTime));
+    // the valid boundary of every scheduled user, older queue entries are skipped
+    private final Map<User, Integer> scheduled = new IdentityHashMap<>();
+    // users read by commands since the last advance, they might have a new boundary
+    private final Map<User, Boolean> touched = new IdentityHashMap<>();
+    private int timestamp = 0;
+
+    private static final class Boundary {
+        private final int time;
+        private final User user;
+
+        Boundary(final int time, final User user) {
+            this.time = time;
+            this.user = user;
+        }
+
+        int getTime() {
+            return time;
+        }
+    }
+
+    /**
+     * Adds a user, whose player starts at the current time.
+     *
+     * @param user the user
+     */
+    public void add(final User user) {
+        user.setSimulatedUntil(timestamp);
+        touched.put(user, Boolean.TRUE);
+    }
+
+    /**
+     * Removes a deleted user.
+     *
+     * @param user the user
+     */
+    public void remove(final User user) {
+        scheduled.remove(user);
+        touched.remove(user);
+    }
+
+    /**
+     * Brings the player of a user to the current time, before a command uses it.
+     *
+     * @param user the user
+     */
+    public void sync(final User user) {
+        catchUp(user);
+        // the command can pause, load or disconnect, so the boundary is recomputed
+        touched.put(user, Boolean.TRUE);
+    }
+
+    /**
+     * Advances the time, simulating only the users whose track ends until then.
+     *
+     * @param newTimestamp the new timestamp
+     */
+    public void advance(final int newTimestamp) {
+        for (User user : touched.keySet()) {
+            schedule(user);
+        }
+        touched.clear();
+
+        timestamp = newTimestamp;
+        while (!boundaries.isEmpty() && boundaries.peek().time <= timestamp) {
+            Boundary boundary = boundaries.poll();
+            Integer current = scheduled.get(boundary.user);
+
+            if (current != null && current == boundary.time) {
+                catchUp(boundary.user);
+                schedule(boundary.user);
+            }
+        }
+    }
+
+    private void catchUp(final User user) {
+        int elapsed = timestamp - user.getSimulatedUntil();
+        if (elapsed > 0) {
+            user.simulateTime(elapsed);
+            user.setSimulatedUntil(timestamp);
+        }
+    }
+
+    private void schedule(final User user) {
+        Player player = user.getPlayer();
+        if (!user.isStatus() || player.getPaused() || player.getSource() == null) {
+            scheduled.remove(user);
+            return;
+        }
+
+        int time = user.getSimulatedUntil() + player.getSource().getDuration();
+        Integer current = scheduled.put(user, time);
+        if (current == null || current != time) {
+            boundaries.add(new Boundary(time, user));
+        }
+    }
+}
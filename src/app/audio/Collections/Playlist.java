@@ -3,6 +3,7 @@ package app.audio.Collections;
 import app.audio.Files.AudioFile;
 import app.audio.Files.Song;
 import app.utils.Enums;
+import app.utils.RangeFilter;
 import lombok.Getter;
 
 import java.util.ArrayList;
@@ -122,18 +123,8 @@ public final class Playlist extends AudioCollection {
     }
 
     @Override
-    public boolean matchesFollowers(final String followerNum) {
-        return filterByFollowersCount(this.getFollowers(), followerNum);
-    }
-
-    private static boolean filterByFollowersCount(final int count, final String query) {
-        if (query.startsWith("<")) {
-            return count < Integer.parseInt(query.substring(1));
-        } else if (query.startsWith(">")) {
-            return count > Integer.parseInt(query.substring(1));
-        } else {
-            return count == Integer.parseInt(query);
-        }
+    public boolean matchesFollowers(final RangeFilter followerNum) {
+        return followerNum.matches(this.getFollowers());
     }
 
     @Override
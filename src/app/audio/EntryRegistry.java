@@ -0,0 +1,137 @@
+package app.audio;
+
+import app.audio.Files.Song;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The recorded entries and genres of a session, each stored once and identified by an
+ * int id, so the players count listens by id instead of allocating entries. The entry
+ * of every audio product played is also kept by product (the library products are
+ * shared by the sessions, so it is not kept on them), so the entries are searched by
+ * name only on the first listen.
+ */
+public final class EntryRegistry {
+    private final Map<RecordedEntry, RecordedEntry> entries = new HashMap<>();
+    private final Map<LibraryEntry, RecordedEntry> products = new IdentityHashMap<>();
+    // the album entry of the songs played outside of a collection
+    private final Map<Song, RecordedEntry> albums = new IdentityHashMap<>();
+    private final List<RecordedEntry> entriesById = new ArrayList<>();
+    private final Map<String, Integer> genres = new HashMap<>();
+    private final List<String> genresById = new ArrayList<>();
+
+    /**
+     * Gets the entry of an audio product, creating it on the first call. Names and
+     * creators differing only by case share the entry (the first spelling is kept).
+     *
+     * @param name the name of the audio product
+     * @param creator the name of the audio product creator
+     * @param type the type of the audio product
+     * @param genre the genre, for songs
+     * @return the entry
+     */
+    public RecordedEntry intern(final String name, final String creator, final String type,
+                                final String genre) {
+        RecordedEntry entry = new RecordedEntry(name, creator, type);
+        RecordedEntry existing = entries.putIfAbsent(entry, entry);
+
+        if (existing != null) {
+            return existing;
+        }
+
+        entry.setGenre(genre);
+        entry.setId(entriesById.size());
+        entriesById.add(entry);
+
+        return entry;
+    }
+
+    /**
+     * Gets the entry of an audio product, by product after the first call.
+     *
+     * @param product the audio product
+     * @param creator the name of the audio product creator
+     * @param type the type of the audio product
+     * @param genre the genre, for songs
+     * @return the entry
+     */
+    public RecordedEntry entryOf(final LibraryEntry product, final String creator,
+                                 final String type, final String genre) {
+        RecordedEntry entry = products.get(product);
+
+        if (entry == null || !entry.getType().equals(type)) {
+            entry = intern(product.getName(), creator, type, genre);
+            products.put(product, entry);
+        }
+
+        return entry;
+    }
+
+    /**
+     * Gets the entry of the album of a song, by song after the first call.
+     *
+     * @param song the song
+     * @return the entry
+     */
+    public RecordedEntry albumOf(final Song song) {
+        RecordedEntry entry = albums.get(song);
+
+        if (entry == null) {
+            entry = intern(song.getAlbum(), song.getArtist(), "album", null);
+            albums.put(song, entry);
+        }
+
+        return entry;
+    }
+
+    /**
+     * Gets an entry by id.
+     *
+     * @param id the id
+     * @return the entry
+     */
+    public RecordedEntry getEntry(final int id) {
+        return entriesById.get(id);
+    }
+
+    /**
+     * Gets the number of entries, the ids being less than it.
+     *
+     * @return the size
+     */
+    public int size() {
+        return entriesById.size();
+    }
+
+    /**
+     * Gets the id of a genre, creating it on the first call.
+     *
+     * @param genre the genre
+     * @return the id
+     */
+    public int genreId(final String genre) {
+        Integer id = genres.get(genre);
+
+        if (id == null) {
+            id = genresById.size();
+            genres.put(genre, id);
+            genresById.add(genre);
+        }
+
+        return id;
+    }
+
+    /**
+     * Gets a genre by id.
+     *
+     * @param id the id
+     * @return the genre
+     */
+    public String getGenre(final int id) {
+        return genresById.get(id);
+    }
+}
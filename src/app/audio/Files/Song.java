@@ -1,29 +1,27 @@
 package app.audio.Files;
 
+import app.utils.RangeFilter;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 /**
- * The type Song.
+ * The type Song. The library songs are shared by all the sessions, so the state of a
+ * session (the likes, the listens) is kept apart, by Admin and the EntryRegistry.
  */
 @Getter
 public final class Song extends AudioFile {
     private final String album;
-    private final ArrayList<String> tags;
+    private final List<String> tags;
     private final String lyrics;
     private final String genre;
     private final Integer releaseYear;
     private final String artist;
+    // set only on the ad, which every session copies
     @Setter
     private int price;
-    private Integer likes;
-    @Setter
-    private boolean premiumListen;
-    @Setter
-    private double revenue;
 
     /**
      * Instantiates a new Song.
@@ -38,81 +36,26 @@ public final class Song extends AudioFile {
      * @param artist      the artist
      */
     public Song(final String name, final Integer duration, final String album,
-                final ArrayList<String> tags, final String lyrics, final String genre,
+                final List<String> tags, final String lyrics, final String genre,
                 final Integer releaseYear, final String artist) {
         super(name, duration);
         this.album = album;
-        this.tags = tags;
+        this.tags = tags == null ? null : List.copyOf(tags);
         this.lyrics = lyrics;
         this.genre = genre;
         this.releaseYear = releaseYear;
         this.artist = artist;
-        this.likes = 0;
-        premiumListen = false;
-        revenue = 0;
         price = 0;
     }
 
-    @Override
-    public boolean matchesAlbum(final String albumName) {
-        return this.getAlbum().equalsIgnoreCase(albumName);
-    }
-
-    @Override
-    public boolean matchesTags(final ArrayList<String> tagsList) {
-        List<String> songTags = new ArrayList<>();
-        for (String tag : this.getTags()) {
-            songTags.add(tag.toLowerCase());
-        }
-
-        for (String tag : tagsList) {
-            if (!songTags.contains(tag.toLowerCase())) {
-                return false;
-            }
-        }
-        return true;
-    }
     @Override
     public boolean matchesLyrics(final String lyricFilter) {
-        return this.getLyrics().toLowerCase().contains(lyricFilter.toLowerCase());
-    }
-
-    @Override
-    public boolean matchesGenre(final String genreFilter) {
-        return this.getGenre().equalsIgnoreCase(genreFilter);
-    }
-
-    @Override
-    public boolean matchesArtist(final String artistFilter) {
-        return this.getArtist().equalsIgnoreCase(artistFilter);
+        return this.getLyrics().toLowerCase(Locale.ROOT)
+                   .contains(lyricFilter.toLowerCase(Locale.ROOT));
     }
 
     @Override
-    public boolean matchesReleaseYear(final String releaseYearFilter) {
-        return filterByYear(this.getReleaseYear(), releaseYearFilter);
-    }
-
-    private static boolean filterByYear(final int year, final String query) {
-        if (query.startsWith("<")) {
-            return year < Integer.parseInt(query.substring(1));
-        } else if (query.startsWith(">")) {
-            return year > Integer.parseInt(query.substring(1));
-        } else {
-            return year == Integer.parseInt(query);
-        }
-    }
-
-    /**
-     * Like.
-     */
-    public void like() {
-        likes++;
-    }
-
-    /**
-     * Dislike.
-     */
-    public void dislike() {
-        likes--;
+    public boolean matchesReleaseYear(final RangeFilter releaseYearFilter) {
+        return releaseYearFilter.matches(this.getReleaseYear());
     }
 }
@@ -1,10 +1,9 @@
 package app.audio;
 
+import app.utils.RangeFilter;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.util.ArrayList;
-
 /**
  * The type Library entry.
  */
@@ -23,36 +22,6 @@ public abstract class LibraryEntry {
         this.name = name;
     }
 
-    /**
-     * Matches name boolean.
-     *
-     * @param nameFilter the name
-     * @return the boolean
-     */
-    public boolean matchesName(final String nameFilter) {
-        return getName().toLowerCase().startsWith(nameFilter.toLowerCase());
-    }
-
-    /**
-     * Matches album boolean.
-     *
-     * @param album the album
-     * @return the boolean
-     */
-    public boolean matchesAlbum(final String album) {
-        return false;
-    }
-
-    /**
-     * Matches tags boolean.
-     *
-     * @param tags the tags
-     * @return the boolean
-     */
-    public boolean matchesTags(final ArrayList<String> tags) {
-        return false;
-    }
-
     /**
      * Matches lyrics boolean.
      *
@@ -63,33 +32,13 @@ public abstract class LibraryEntry {
         return false;
     }
 
-    /**
-     * Matches genre boolean.
-     *
-     * @param genre the genre
-     * @return the boolean
-     */
-    public boolean matchesGenre(final String genre) {
-        return false;
-    }
-
-    /**
-     * Matches artist boolean.
-     *
-     * @param artist the artist
-     * @return the boolean
-     */
-    public boolean matchesArtist(final String artist) {
-        return false;
-    }
-
     /**
      * Matches release year boolean.
      *
-     * @param releaseYear the release year
+     * @param releaseYear the release year range
      * @return the boolean
      */
-    public boolean matchesReleaseYear(final String releaseYear) {
+    public boolean matchesReleaseYear(final RangeFilter releaseYear) {
         return false;
     }
 
@@ -126,10 +75,10 @@ public abstract class LibraryEntry {
     /**
      * Matches followers boolean.
      *
-     * @param followers the followers
+     * @param followers the followers range
      * @return the boolean
      */
-    public boolean matchesFollowers(final String followers) {
+    public boolean matchesFollowers(final RangeFilter followers) {
         return false;
     }
 }
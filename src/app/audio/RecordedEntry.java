@@ -3,16 +3,23 @@ package app.audio;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.Locale;
 import java.util.Objects;
 
 
 @Getter
 @Setter
 public class RecordedEntry extends LibraryEntry {
-    private String creator;
-    private String type;
+    private final String creator;
+    private final String type;
     private String genre;
     private double price;
+    // the index in the entry registry of the session
+    private int id;
+    // name and creator compare case-insensitively, so the hash uses their lowercase forms
+    private final String nameKey;
+    private final String creatorKey;
+    private final int hash;
 
     /**
      * Constructor for recorded entry
@@ -26,10 +33,14 @@ public class RecordedEntry extends LibraryEntry {
         this.creator = creator;
         this.type = type;
         price = 0;
+        nameKey = name.toLowerCase(Locale.ROOT);
+        creatorKey = creator.toLowerCase(Locale.ROOT);
+        hash = Objects.hash(nameKey, creatorKey, type);
     }
 
     /**
-     * Verifies if this is equal with an object
+     * Verifies if this is equal with an object: same type, same name and
+     * creator ignoring case
      *
      * @param o the object
      * @return the proposition truth value
@@ -45,16 +56,16 @@ public class RecordedEntry extends LibraryEntry {
 
         RecordedEntry cmp = (RecordedEntry) o;
 
-        return getName().equalsIgnoreCase(cmp.getName())
-                && getCreator().equalsIgnoreCase(cmp.getCreator());
+        return hash == cmp.hash && type.equals(cmp.type)
+                && nameKey.equals(cmp.nameKey) && creatorKey.equals(cmp.creatorKey);
     }
 
     /**
-     * Creates a hash based on name and creator
+     * Gets the hash based on name, creator and type, computed once
      * @return the int hash
      */
     @Override
     public int hashCode() {
-        return Objects.hash(getName(), getCreator(), getType());
+        return hash;
     }
 }
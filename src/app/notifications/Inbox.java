@@ -0,0 +1,82 @@
+package app.notifications;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The notifications received by a user and not seen yet, in a ring buffer. The buffer
+ * grows up to the retention, then a new notification replaces the oldest one. The
+ * notifications are shared by all the inboxes they were sent to.
+ */
+public final class Inbox {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private final int retention;
+    private Notification[] notifications;
+    private int head = 0;
+    private int size = 0;
+
+    /**
+     * Instantiates a new Inbox.
+     *
+     * @param retention the maximum number of notifications kept (at least one), the
+     *                  oldest are dropped
+     * @throws IllegalArgumentException if the retention is less than one
+     */
+    public Inbox(final int retention) {
+        if (retention < 1) {
+            throw new IllegalArgumentException("Inbox retention must be at least 1, not "
+                                               + retention);
+        }
+        this.retention = retention;
+        notifications = new Notification[Math.min(INITIAL_CAPACITY, retention)];
+    }
+
+    /**
+     * Adds a notification, dropping the oldest one if the inbox is full.
+     *
+     * @param notification the notification
+     */
+    public void add(final Notification notification) {
+        if (size == notifications.length && size < retention) {
+            grow();
+        }
+
+        if (size == notifications.length) {
+            notifications[head] = notification;
+            head = (head + 1) % notifications.length;
+        } else {
+            notifications[(head + size) % notifications.length] = notification;
+            size++;
+        }
+    }
+
+    /**
+     * Takes all the notifications, leaving the inbox empty.
+     *
+     * @return the notifications, from the oldest
+     */
+    public List<Notification> drain() {
+        Notification[] drained = new Notification[size];
+        for (int i = 0; i < size; i++) {
+            int index = (head + i) % notifications.length;
+            drained[i] = notifications[index];
+            notifications[index] = null;
+        }
+
+        head = 0;
+        size = 0;
+        return Arrays.asList(drained);
+    }
+
+    // the notifications are moved to the start of the new buffer
+    private void grow() {
+        Notification[] grown = new Notification[Math.min(2 * notifications.length, retention)];
+        for (int i = 0; i < size; i++) {
+            grown[i] = notifications[(head + i) % notifications.length];
+        }
+
+        notifications = grown;
+        head = 0;
+    }
+}
@@ -2,10 +2,14 @@ package app.notifications;
 
 import lombok.Getter;
 
+/**
+ * A notification sent by a content creator. It is immutable, so the same object is
+ * shared by the inboxes of all the subscribers.
+ */
 @Getter
-public class Notification {
-    private String name;
-    private String description;
+public final class Notification {
+    private final String name;
+    private final String description;
 
     public Notification(final String name, final String description) {
         this.name = name;
@@ -1,57 +1,193 @@
 package app.notifications;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
-import app.user.User;
-import lombok.Getter;
+/**
+ * Notifies the subscribers of the content creators. The observers are kept by the
+ * username of every content creator they subscribed to, so a notification reaches
+ * the subscribers without walking all the users.
+ *
+ * <p>Every observer belongs to a delivery lane, and the deliveries of a lane run one
+ * after the other, so an observer receives the notifications in the order they were
+ * sent. The subscribers of a content creator are kept by lane when they subscribe, so
+ * a notification is sent as one batch per lane; a large batch, or one sent while the
+ * lane is still busy, is delivered by the worker pool of the manager, so the command
+ * that sent it does not wait for the whole fan-out. The pool has a thread per lane,
+ * started by the first delivery it runs, and is stopped when the manager is closed.
+ */
+public class NotificationManager implements AutoCloseable {
+    private static final int LANES = 4;
+    private static final int INLINE_BATCH = 256;
 
-@Getter
-public class NotificationManager {
-    private ArrayList<Observer> observers;
+    private final Map<String, Subscribers> subscribers = new HashMap<>();
+    // a lane has a single delivery running at a time, so a thread per lane is enough
+    private final ExecutorService workers = Executors.newFixedThreadPool(LANES, runnable -> {
+        Thread thread = new Thread(runnable, "notifications");
+        // a manager left open does not keep the program running
+        thread.setDaemon(true);
+        return thread;
+    });
+    // the last delivery of every lane
+    private final List<CompletableFuture<Void>> lanes = new ArrayList<>(LANES);
+
+    // the subscribers of a content creator, by lane
+    private static final class Subscribers {
+        private final List<Set<Observer>> lanes = new ArrayList<>(LANES);
+        // the batch sent to every lane, read-only, null after the lane changed
+        private final List<List<Observer>> batches = new ArrayList<>(LANES);
+        private int size = 0;
+
+        Subscribers() {
+            for (int i = 0; i < LANES; i++) {
+                lanes.add(new LinkedHashSet<>());
+                batches.add(List.of());
+            }
+        }
+
+        void add(final Observer observer) {
+            int lane = lane(observer);
+            if (lanes.get(lane).add(observer)) {
+                batches.set(lane, null);
+                size++;
+            }
+        }
+
+        void remove(final Observer observer) {
+            int lane = lane(observer);
+            if (lanes.get(lane).remove(observer)) {
+                batches.set(lane, null);
+                size--;
+            }
+        }
+
+        // the batches are delivered later, so a lane that changed gets a new one
+        List<Observer> batch(final int lane) {
+            if (batches.get(lane) == null) {
+                batches.set(lane, List.copyOf(lanes.get(lane)));
+            }
+            return batches.get(lane);
+        }
+    }
+
+    /**
+     * Instantiates a new NotificationManager, with no subscribers and idle lanes.
+     */
     public NotificationManager() {
-        observers = new ArrayList<>();
+        for (int i = 0; i < LANES; i++) {
+            lanes.add(CompletableFuture.completedFuture(null));
+        }
     }
 
     /**
-     * Adds a user to the list of observers that receive notifications
+     * Subscribes an observer to the notifications of a content creator
      *
      * @param observer the user
+     * @param username the content creator
      */
-    public void addObserver(final Observer observer) {
-        observers.add(observer);
+    public void subscribe(final Observer observer, final String username) {
+        subscribers.computeIfAbsent(username, creator -> new Subscribers()).add(observer);
     }
 
     /**
-     * Deletes a user from the notification systems in the case yhe user is
-     * removed from the platform
+     * Unsubscribes an observer from the notifications of a content creator
      *
      * @param observer the user
+     * @param username the content creator
      */
-    public void rmObserver(final Observer observer) {
-        if (!observers.contains(observer)) {
+    public void unsubscribe(final Observer observer, final String username) {
+        Subscribers observers = subscribers.get(username);
+        if (observers == null) {
             return;
         }
 
         observers.remove(observer);
+        if (observers.size == 0) {
+            subscribers.remove(username);
+        }
+    }
+
+    /**
+     * Deletes a user from the notification systems in the case yhe user is
+     * removed from the platform
+     *
+     * @param observer the user
+     * @param subscriptions the content creators the user subscribed to
+     */
+    public void rmObserver(final Observer observer, final Collection<String> subscriptions) {
+        for (String username : subscriptions) {
+            unsubscribe(observer, username);
+        }
     }
 
     /**
      * For a specific notification of a content creator, the notification
-     * manager notifies all observers that contain in the subscriptions list
-     * the content creator name
+     * manager notifies all observers subscribed to the content creator
      *
      * @param notification the notification object
      * @param username the content creator that notifies subscribers
      */
     public void notifyObservers(final Notification notification, final String username) {
-        ArrayList<String> subscriptions;
+        Subscribers observers = subscribers.get(username);
+        if (observers == null) {
+            return;
+        }
+
+        for (int i = 0; i < LANES; i++) {
+            // the subscribers are taken now, the later subscriptions do not get it
+            List<Observer> batch = observers.batch(i);
+            if (batch.isEmpty()) {
+                continue;
+            }
+
+            CompletableFuture<Void> last = lanes.get(i);
+            if (last.isDone() && batch.size() <= INLINE_BATCH) {
+                deliver(batch, notification);
+            } else {
+                lanes.set(i, last.thenRunAsync(() -> deliver(batch, notification), workers));
+            }
+        }
+    }
+
+    /**
+     * Waits for the notifications sent to an observer to be delivered
+     *
+     * @param observer the user
+     */
+    public void await(final Observer observer) {
+        lanes.get(lane(observer)).join();
+    }
 
-        for (Observer observer: observers) {
-            subscriptions = ((User) observer).getSubscriptions();
+    /**
+     * Waits for all the notifications to be delivered, then stops the worker pool. No
+     * notification can be sent after.
+     */
+    @Override
+    public void close() {
+        lanes.forEach(CompletableFuture::join);
+        workers.shutdown();
+    }
 
-            if (subscriptions.contains(username)) {
+    // a failed delivery is reported and skipped, so the lane and the batch go on
+    private static void deliver(final List<Observer> batch, final Notification notification) {
+        for (Observer observer : batch) {
+            try {
                 observer.update(notification);
+            } catch (RuntimeException e) {
+                System.err.println("%s not delivered: %s".formatted(notification.getName(), e));
             }
         }
     }
+
+    private static int lane(final Observer observer) {
+        return Math.floorMod(System.identityHashCode(observer), LANES);
+    }
 }
@@ -6,6 +6,7 @@ import app.audio.Files.Song;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.function.ToIntFunction;
 
 /**
  * The type Home page.
@@ -17,14 +18,19 @@ public final class HomePage implements Page {
     private List<Playlist> recommendedPlaylists;
     private boolean recommended = false;
     private final int limit = 5;
+    // the likes of a song in the session
+    private final ToIntFunction<Song> likes;
 
     /**
      * Instantiates a new Home page.
      *
      * @param songs the songs
      * @param playlists the playlists
+     * @param likes the likes of a song
      */
-    public HomePage(final List<Song> songs, final List<Playlist> playlists) {
+    public HomePage(final List<Song> songs, final List<Playlist> playlists,
+                    final ToIntFunction<Song> likes) {
+        this.likes = likes;
         likedSongs = songs;
         followedPlaylists = playlists;
         recommendedSongs = new ArrayList<>();
@@ -38,9 +44,12 @@ public final class HomePage implements Page {
      * @param playlists the playlists
      * @param recSongs the recommended songs
      * @param recPlaylists the recommended playlists
+     * @param likes the likes of a song
      */
     public HomePage(final List<Song> songs, final List<Playlist> playlists,
-                    final List<Song> recSongs, final List<Playlist> recPlaylists) {
+                    final List<Song> recSongs, final List<Playlist> recPlaylists,
+                    final ToIntFunction<Song> likes) {
+        this.likes = likes;
         likedSongs = songs;
         followedPlaylists = playlists;
         recommendedSongs = recSongs;
@@ -52,26 +61,26 @@ public final class HomePage implements Page {
     public String printCurrentPage() {
         String first = "Liked songs:\n\t%s\n\nFollowed playlists:\n\t%s"
                 .formatted(likedSongs.stream()
-                                .sorted(Comparator.comparing(Song::getLikes)
+                                .sorted(Comparator.comparingInt(likes)
                                         .reversed()).limit(limit).map(Song::getName)
                                 .toList(),
                         followedPlaylists.stream().sorted((o1, o2) ->
-                                        o2.getSongs().stream().map(Song::getLikes)
+                                        o2.getSongs().stream().map(likes::applyAsInt)
                                                 .reduce(Integer::sum).orElse(0)
-                                                - o1.getSongs().stream().map(Song::getLikes)
+                                                - o1.getSongs().stream().map(likes::applyAsInt)
                                                 .reduce(Integer::sum)
                                                 .orElse(0)).limit(limit).map(Playlist::getName)
                                 .toList());
 
         String second = "\n\nSong recommendations:\n\t%s\n\nPlaylists recommendations:\n\t%s"
                 .formatted(recommendedSongs.stream()
-                                .sorted(Comparator.comparing(Song::getLikes)
+                                .sorted(Comparator.comparingInt(likes)
                                         .reversed()).limit(limit).map(Song::getName)
                                 .toList(),
                         recommendedPlaylists.stream().sorted((o1, o2) ->
-                                        o2.getSongs().stream().map(Song::getLikes)
+                                        o2.getSongs().stream().map(likes::applyAsInt)
                                                 .reduce(Integer::sum).orElse(0)
-                                                - o1.getSongs().stream().map(Song::getLikes)
+                                                - o1.getSongs().stream().map(likes::applyAsInt)
                                                 .reduce(Integer::sum)
                                                 .orElse(0)).limit(limit).map(Playlist::getName)
                                 .toList());
@@ -0,0 +1,78 @@
+package app.player;
+
+import java.util.Arrays;
+
+/**
+ * The songs listened by a user and not yet settled by monetization, in order. Every
+ * listen is packed in a long: the entry id, the premium flag and the price (for ads).
+ */
+public final class ListenLog {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long ENTRY_MASK = 0x7fffffffL;
+    private static final long PREMIUM_BIT = 0x80000000L;
+    private static final int PRICE_SHIFT = 32;
+
+    private long[] listens = new long[INITIAL_CAPACITY];
+    private int size = 0;
+
+    /**
+     * Adds a listen.
+     *
+     * @param entryId the id of the recorded entry of the song
+     * @param premium true if the user was premium
+     * @param price the price of the song, set for ads
+     */
+    public void add(final int entryId, final boolean premium, final int price) {
+        if (size == listens.length) {
+            listens = Arrays.copyOf(listens, 2 * listens.length);
+        }
+
+        listens[size++] = ((long) price << PRICE_SHIFT) | (premium ? PREMIUM_BIT : 0) | entryId;
+    }
+
+    /**
+     * Gets the number of listens.
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the entry id of a listen.
+     *
+     * @param index the index of the listen
+     * @return the entry id
+     */
+    public int getEntryId(final int index) {
+        return (int) (listens[index] & ENTRY_MASK);
+    }
+
+    /**
+     * Checks if a listen was premium.
+     *
+     * @param index the index of the listen
+     * @return true if premium
+     */
+    public boolean isPremium(final int index) {
+        return (listens[index] & PREMIUM_BIT) != 0;
+    }
+
+    /**
+     * Gets the price of a listen.
+     *
+     * @param index the index of the listen
+     * @return the price
+     */
+    public int getPrice(final int index) {
+        return (int) (listens[index] >>> PRICE_SHIFT);
+    }
+
+    /**
+     * Removes all the listens, after they were settled.
+     */
+    public void clear() {
+        size = 0;
+    }
+}
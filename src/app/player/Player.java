@@ -10,6 +10,7 @@ import app.audio.LibraryEntry;
 import app.audio.RecordedEntry;
 import app.user.Artist;
 import app.utils.Enums;
+import app.utils.IntCounter;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -30,23 +31,27 @@ public final class Player {
     private String type;
     private final int skipTime = 90;
     private ArrayList<PodcastBookmark> bookmarks = new ArrayList<>();
+    // listens by recorded entry id and by genre id, from the session entry registry
     @Getter
-    private HashMap<RecordedEntry, Integer> recordedEntries = new HashMap<>();
+    private final IntCounter recordedEntries = new IntCounter();
+    private final IntCounter listenedGenres = new IntCounter();
     @Getter
-    private HashMap<String, Integer> listenedGenres = new HashMap<>();
-    @Getter
-    private ArrayList<Song> recordedSongs = new ArrayList<>();
+    private final ListenLog recordedSongs = new ListenLog();
     @Getter
     @Setter
     private boolean premiumListen = false;
     @Setter
     private Song ad;
+    private final Admin admin;
 
 
     /**
      * Instantiates a new Player.
+     *
+     * @param admin the admin of the session
      */
-    public Player() {
+    public Player(final Admin admin) {
+        this.admin = admin;
         this.repeatMode = Enums.RepeatMode.NO_REPEAT;
         this.paused = true;
         this.ad = null;
@@ -203,6 +208,7 @@ public final class Player {
         int elapsedTime = time;
 
         if (!paused) {
+            int tracks = 0;
             while (elapsedTime >= source.getDuration()) {
                 elapsedTime -= source.getDuration();
                 next();
@@ -210,6 +216,11 @@ public final class Player {
                 if (paused) {
                     break;
                 }
+
+                // a whole cycle was already played track by track, the next ones are skipped
+                if (++tracks == source.getCycleLength(repeatMode, shuffle)) {
+                    elapsedTime = skipCycles(elapsedTime);
+                }
             }
             if (!paused) {
                 source.skip(-elapsedTime);
@@ -217,6 +228,52 @@ public final class Player {
         }
     }
 
+    /**
+     * Plays all the whole cycles of a repeating source that fit in the elapsed time at
+     * once: the listens are counted in bulk, and so are the recorded songs, unless an ad
+     * is pending and has to be recorded between every two tracks.
+     *
+     * @param elapsedTime the time left, starting from the beginning of the current track
+     * @return the time left after the skipped cycles
+     */
+    private int skipCycles(final int elapsedTime) {
+        List<AudioFile> cycle = source.getCycle(repeatMode, shuffle);
+        int cycleDuration = 0;
+        for (AudioFile file : cycle) {
+            cycleDuration += file.getDuration();
+        }
+
+        if (cycleDuration == 0 || elapsedTime < cycleDuration) {
+            return elapsedTime;
+        }
+
+        int cycles = elapsedTime / cycleDuration;
+        recordCollection(cycles * cycle.size());
+        for (AudioFile file : cycle) {
+            recordListens(file, cycles);
+        }
+
+        boolean songs = type.equals("song") || type.equals("album");
+        if (ad == null && songs) {
+            // without an ad between the tracks, a cycle is settled once for all of them
+            for (AudioFile file : cycle) {
+                logSong((Song) file);
+            }
+            admin.getMonetization().settle(recordedSongs, cycles);
+        } else if (ad != null) {
+            for (int i = 0; i < cycles; i++) {
+                for (AudioFile file : cycle) {
+                    recordAd();
+                    if (songs) {
+                        recordSong((Song) file);
+                    }
+                }
+            }
+        }
+
+        return elapsedTime - cycles * cycleDuration;
+    }
+
     /**
      * Next.
      */
@@ -346,32 +403,8 @@ public final class Player {
             return;
         }
 
-        RecordedEntry rec;
-
         if (collection) {
-            AudioCollection current = getCurrentAudioCollection();
-
-            if (current == null || current.getName().equals("Buy Premium")) {
-                return;
-            }
-
-            String productType;
-
-            if (type.equals("album")) {
-                productType = "album";
-            } else if (type.equals("podcast")) {
-                productType = "podcast";
-            } else {
-                if (!type.equals("playlist")) {
-                    throw new RuntimeException("Error. No valid audio collection type!");
-                }
-
-                productType = "playlist";
-            }
-
-            rec = new RecordedEntry(current.getName(), current.getOwner(), productType);
-            recordedEntries.put(rec, recordedEntries.getOrDefault(rec, 0) + 1);
-
+            recordCollection(1);
             return;
         }
 
@@ -381,43 +414,82 @@ public final class Player {
         }
 
         if (type.equals("song") || type.equals("album")) {
-            Song song = (Song) current;
-            rec = new RecordedEntry(song.getName(), song.getArtist(), "song");
-            rec.setGenre(song.getGenre());
+            recordSong((Song) current);
+        }
+        recordListens(current, 1);
+    }
+
+    private void recordCollection(final int times) {
+        AudioCollection current = getCurrentAudioCollection();
+
+        if (current == null || current.getName().equals("Buy Premium")) {
+            return;
+        }
+
+        String productType;
+
+        if (type.equals("album")) {
+            productType = "album";
+        } else if (type.equals("podcast")) {
+            productType = "podcast";
+        } else {
+            if (!type.equals("playlist")) {
+                throw new RuntimeException("Error. No valid audio collection type!");
+            }
+
+            productType = "playlist";
+        }
+
+        RecordedEntry rec = entryOf(current, current.getOwner(), productType, null);
+        recordedEntries.add(rec.getId(), times);
+    }
+
+    private void recordSong(final Song song) {
+        logSong(song);
+        admin.getMonetization().settle(recordedSongs);
+    }
+
+    private void logSong(final Song song) {
+        RecordedEntry rec = entryOf(song, song.getArtist(), "song", song.getGenre());
+
+        // the premium flag and price determine the formula for monetization
+        recordedSongs.add(rec.getId(), premiumListen, song.getPrice());
+    }
 
-            Song copySong = new Song(song.getName(), song.getDuration(), song.getAlbum(),
-                    song.getTags(), song.getLyrics(), song.getGenre(),
-                    song.getReleaseYear(), song.getArtist());
+    private RecordedEntry entryOf(final LibraryEntry product, final String creator,
+                                  final String productType, final String genre) {
+        return admin.getEntryRegistry().entryOf(product, creator, productType, genre);
+    }
 
-            // useful for determining correct formula for monetization
-            copySong.setPremiumListen(premiumListen);
-            copySong.setPrice(song.getPrice());
+    private void recordListens(final AudioFile current, final int times) {
+        RecordedEntry rec;
 
-            recordedSongs.add(copySong);
+        if (type.equals("song") || type.equals("album")) {
+            Song song = (Song) current;
 
             // ads are not part of current statistical populations
             if (song.getName().equals("Ad Break")) {
                 return;
             }
 
-            listenedGenres.put(song.getGenre(),
-                    listenedGenres.getOrDefault(song.getGenre(), 0) + 1);
-            List<Artist> artists = Admin.getInstance().getArtists();
+            rec = entryOf(song, song.getArtist(), "song", song.getGenre());
+
+            listenedGenres.add(admin.getEntryRegistry().genreId(song.getGenre()), times);
+            List<Artist> artists = admin.getArtists();
 
             for (Artist artist: artists) {
                 if (artist.getUsername().equalsIgnoreCase(song.getArtist())) {
                     // 1 for the song, 1 for the album
-                    artist.setListens(artist.getListens() + 2);
+                    artist.setListens(artist.getListens() + 2 * times);
                     break;
                 }
             }
 
-            Admin.getInstance().setArtists(artists);
-            recordedEntries.put(rec, recordedEntries.getOrDefault(rec, 0) + 1);
+            recordedEntries.add(rec.getId(), times);
 
             if (getCurrentAudioCollection() == null) {
-                rec = new RecordedEntry(song.getAlbum(), song.getArtist(), "album");
-                recordedEntries.put(rec, recordedEntries.getOrDefault(rec, 0) + 1);
+                rec = admin.getEntryRegistry().albumOf(song);
+                recordedEntries.add(rec.getId(), times);
             }
         } else  {
             if (!type.equals("episode") && !type.equals("podcast")) {
@@ -431,8 +503,8 @@ public final class Player {
                 throw new RuntimeException("Error. No podcast for the episode!");
             }
 
-            rec = new RecordedEntry(episode.getName(), podcast.getOwner(), "episode");
-            recordedEntries.put(rec, recordedEntries.getOrDefault(rec, 0) + 1);
+            rec = entryOf(episode, podcast.getOwner(), "episode", null);
+            recordedEntries.add(rec.getId(), times);
         }
     }
 
@@ -452,12 +524,25 @@ public final class Player {
      *
      */
     public void recordAd() {
-        Song copySong = new Song(ad.getName(), ad.getDuration(), ad.getAlbum(),
-                ad.getTags(), ad.getLyrics(), ad.getGenre(),
-                ad.getReleaseYear(), ad.getArtist());
-        copySong.setPrice(ad.getPrice());
+        RecordedEntry rec = entryOf(ad, ad.getArtist(), "song", ad.getGenre());
 
         // by default, ads will be listened in free mode
-        recordedSongs.add(copySong);
+        recordedSongs.add(rec.getId(), false, ad.getPrice());
+        admin.getMonetization().settle(recordedSongs);
+    }
+
+    /**
+     * Gets the number of listens for every genre.
+     *
+     * @return the listened genres
+     */
+    public HashMap<String, Integer> getListenedGenres() {
+        HashMap<String, Integer> genres = new HashMap<>();
+        for (int i = 0; i < listenedGenres.size(); i++) {
+            genres.put(admin.getEntryRegistry().getGenre(listenedGenres.keyAt(i)),
+                       listenedGenres.countAt(i));
+        }
+
+        return genres;
     }
 }
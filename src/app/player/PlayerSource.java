@@ -140,6 +140,53 @@ public class PlayerSource {
         return isPaused;
     }
 
+    /**
+     * Gets the number of tracks after which a repeating source returns to the current
+     * track, through setNextAudioFile.
+     *
+     * @param repeatMode the repeat mode
+     * @param shuffle    the shuffle
+     * @return the cycle length, 0 if the source does not repeat
+     */
+    public int getCycleLength(final Enums.RepeatMode repeatMode, final boolean shuffle) {
+        if (repeatMode == Enums.RepeatMode.NO_REPEAT
+            || repeatMode == Enums.RepeatMode.REPEAT_ONCE) {
+            return 0;
+        }
+
+        if (type == Enums.PlayerSourceType.LIBRARY
+            || repeatMode != Enums.RepeatMode.REPEAT_ALL) {
+            return 1;
+        }
+
+        return shuffle ? indices.size() : audioCollection.getNumberOfTracks();
+    }
+
+    /**
+     * Gets the tracks a repeating source plays after the current one, in order, until it
+     * gets back to the current track (the last element).
+     *
+     * @param repeatMode the repeat mode
+     * @param shuffle    the shuffle
+     * @return the cycle, empty if the source does not repeat
+     */
+    public List<AudioFile> getCycle(final Enums.RepeatMode repeatMode, final boolean shuffle) {
+        int length = getCycleLength(repeatMode, shuffle);
+        List<AudioFile> cycle = new ArrayList<>(length);
+
+        if (length == 1) {
+            cycle.add(audioFile);
+        } else {
+            for (int i = 1; i <= length; i++) {
+                int next = shuffle ? indices.get((indexShuffled + i) % length)
+                                   : (index + i) % length;
+                cycle.add(audioCollection.getTrackByIndex(next));
+            }
+        }
+
+        return cycle;
+    }
+
     /**
      * Sets prev audio file.
      *
@@ -0,0 +1,48 @@
+package app.searchBar;
+
+import app.audio.Collections.Podcast;
+import app.audio.Files.Song;
+
+import java.util.List;
+
+/**
+ * The search indexes of the library songs and podcasts, built once with the catalog and
+ * shared by all the sessions. They are only read once built, so the sessions search
+ * them at the same time; a session indexes the songs and podcasts it adds in its own
+ * SearchIndex, after these.
+ */
+public final class CatalogIndex {
+    private final SongIndex songs = new SongIndex();
+    private final PrefixIndex<Podcast> podcasts = new PrefixIndex<>();
+
+    /**
+     * Instantiates a new CatalogIndex.
+     *
+     * @param songList the library songs, in library order
+     * @param podcastList the library podcasts, in library order
+     */
+    public CatalogIndex(final List<Song> songList, final List<Podcast> podcastList) {
+        songList.forEach(songs::add);
+        for (int i = 0; i < podcastList.size(); i++) {
+            podcasts.add(podcastList.get(i).getName(), podcastList.get(i), i);
+        }
+    }
+
+    /**
+     * Gets the index of the library songs, to be read only.
+     *
+     * @return the song index
+     */
+    SongIndex getSongs() {
+        return songs;
+    }
+
+    /**
+     * Gets the index of the library podcast names, to be read only.
+     *
+     * @return the podcast index
+     */
+    PrefixIndex<Podcast> getPodcasts() {
+        return podcasts;
+    }
+}
@@ -0,0 +1,232 @@
+package app.searchBar;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Finds the items whose name starts with a prefix, ignoring case. The lower-cased names
+ * are kept in a trie, every item only at the node of its name, and every node knows the
+ * number of items below it and their smallest order key (their position in the
+ * library). A search walks the prefix, then reads the items below it in library order
+ * by a lazy merge, always going down the node with the smallest order key left, so it
+ * reads only as many items as the caller needs.
+ *
+ * @param <T> the type of the items
+ */
+public final class PrefixIndex<T> {
+    private final Node<T> root = new Node<>();
+    // the order key of every item, to find it in its node
+    private final Map<T, Long> orders = new HashMap<>();
+
+    private static final class Node<T> {
+        private final Map<Character, Node<T>> children = new HashMap<>();
+        // the items with the name of the node, sorted by order key
+        private final List<Item<T>> items = new ArrayList<>();
+        // the number of items below the node, its own included
+        private int count = 0;
+        // the smallest order key below the node
+        private long first = Long.MAX_VALUE;
+    }
+
+    private static final class Item<T> {
+        private final T value;
+        private final long order;
+
+        Item(final T value, final long order) {
+            this.value = value;
+            this.order = order;
+        }
+    }
+
+    // a node of a search: its subtree until it is expanded, then its own items
+    private static final class Cursor<T> {
+        private final Node<T> node;
+        private int index = -1;
+
+        Cursor(final Node<T> node) {
+            this.node = node;
+        }
+
+        long key() {
+            return index < 0 ? node.first : node.items.get(index).order;
+        }
+    }
+
+    /**
+     * Adds an item.
+     *
+     * @param name the name of the item
+     * @param value the item
+     * @param order the position of the item in the library, as order key
+     */
+    public void add(final String name, final T value, final long order) {
+        String key = name.toLowerCase(Locale.ROOT);
+        orders.put(value, order);
+
+        Node<T> node = root;
+        count(node, order);
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), c -> new Node<>());
+            count(node, order);
+        }
+
+        // the items are mostly added in library order, at the end
+        int index = node.items.size();
+        if (index > 0 && node.items.get(index - 1).order > order) {
+            index = find(node.items, order);
+        }
+        node.items.add(index, new Item<>(value, order));
+    }
+
+    /**
+     * Removes an item.
+     *
+     * @param name the name of the item
+     * @param value the item
+     */
+    public void remove(final String name, final T value) {
+        Long order = orders.remove(value);
+        if (order == null) {
+            return;
+        }
+
+        String key = name.toLowerCase(Locale.ROOT);
+        Deque<Node<T>> path = new ArrayDeque<>();
+        Node<T> node = root;
+        path.push(node);
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.get(key.charAt(i));
+            path.push(node);
+        }
+
+        int index = find(node.items, order);
+        node.items.remove(index);
+
+        // the counts and smallest keys are updated back up to the root
+        for (int i = key.length(); i >= 0; i--) {
+            node = path.pop();
+            node.count--;
+            if (node.first == order) {
+                node.first = first(node);
+            }
+            if (i > 0 && node.count == 0) {
+                path.peek().children.remove(key.charAt(i - 1));
+            }
+        }
+    }
+
+    /**
+     * Removes all the items.
+     */
+    public void clear() {
+        root.children.clear();
+        root.items.clear();
+        root.count = 0;
+        root.first = Long.MAX_VALUE;
+        orders.clear();
+    }
+
+    /**
+     * Searches the items whose name starts with a prefix, ignoring case. The items are
+     * read from the index as the list is read, so it should be read in order and not
+     * kept after the index changes.
+     *
+     * @param prefix the prefix
+     * @return the items found, in library order
+     */
+    public List<T> search(final String prefix) {
+        String key = prefix.toLowerCase(Locale.ROOT);
+        Node<T> node = root;
+
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+        }
+        if (node == null || node.count == 0) {
+            return Collections.emptyList();
+        }
+
+        int count = node.count;
+        PriorityQueue<Cursor<T>> cursors = new PriorityQueue<>(
+                Comparator.comparingLong(Cursor::key));
+        cursors.add(new Cursor<>(node));
+
+        return new AbstractList<>() {
+            // the items merged so far
+            private final List<T> read = new ArrayList<>();
+
+            @Override
+            public T get(final int index) {
+                while (read.size() <= index) {
+                    read.add(next(cursors));
+                }
+                return read.get(index);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    // the next item in library order, expanding the nodes on the way
+    private static <T> T next(final PriorityQueue<Cursor<T>> cursors) {
+        while (true) {
+            Cursor<T> cursor = cursors.poll();
+
+            if (cursor.index < 0) {
+                for (Node<T> child : cursor.node.children.values()) {
+                    cursors.add(new Cursor<>(child));
+                }
+                cursor.index = 0;
+                if (!cursor.node.items.isEmpty()) {
+                    cursors.add(cursor);
+                }
+            } else {
+                T value = cursor.node.items.get(cursor.index++).value;
+                if (cursor.index < cursor.node.items.size()) {
+                    cursors.add(cursor);
+                }
+                return value;
+            }
+        }
+    }
+
+    private static <T> void count(final Node<T> node, final long order) {
+        node.count++;
+        node.first = Math.min(node.first, order);
+    }
+
+    // the smallest order key below a node, from its items and its children
+    private static <T> long first(final Node<T> node) {
+        long first = node.items.isEmpty() ? Long.MAX_VALUE : node.items.get(0).order;
+        for (Node<T> child : node.children.values()) {
+            first = Math.min(first, child.first);
+        }
+        return first;
+    }
+
+    // the index of the first item with an order key not less than the given one
+    private static <T> int find(final List<Item<T>> items, final long order) {
+        int low = 0;
+        int high = items.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (items.get(middle).order < order) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,264 @@
+package app.searchBar;
+
+import app.audio.LibraryEntry;
+import app.utils.RangeFilter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A playlist, podcast or album search compiled to a single pass. The plan picks where
+ * the candidates come from (a name prefix or a followers range read from the search
+ * index, or else the whole list, all read lazily from the index in library order) and
+ * tests the other filters as criteria on every candidate until enough results are
+ * found. The criteria are tested from the most selective, as estimated from the search
+ * index for the values of a query.
+ *
+ * <p>A plan depends only on the shape of the query (the type and which filters are
+ * set), a bit mask, so a search bar compiles it once per shape and keeps it in an
+ * array indexed by the shape. The plan keeps its criteria in the order estimated for
+ * the first query after the index of its type changed, so the next queries only bring
+ * their filter values; the estimates only order the criteria, so a stale order is
+ * slower but finds the same results.
+ */
+final class QueryPlan {
+    private static final int NAME_BIT = 1;
+    private static final int OWNER_BIT = 2;
+    private static final int FOLLOWERS_BIT = 4;
+    private static final int DESCRIPTION_BIT = 8;
+    private static final int TYPE_SHIFT = 4;
+    private static final List<String> TYPES = List.of("playlist", "podcast", "album");
+    /** The number of query shapes, the size of the plan arrays. */
+    static final int SHAPES = TYPES.size() << TYPE_SHIFT;
+
+    private final String type;
+    private final Source source;
+    private final List<Criterion> criteria;
+    // the criteria by selectivity, as estimated on an index at a version of the type
+    private Criterion[] pipeline;
+    private SearchIndex orderedIndex;
+    private long orderedVersion;
+
+    private enum Source {
+        NAME, FOLLOWERS, ALL
+    }
+
+    // the estimates tie in the order they are declared
+    private enum Criterion {
+        OWNER {
+            @Override
+            boolean matches(final LibraryEntry entry, final Query query) {
+                return entry.matchesOwner(query.owner);
+            }
+
+            // the entries are taken as spread evenly between the owners
+            @Override
+            double estimate(final Query query, final String type, final SearchIndex index) {
+                return share(1, index.countOwners(type));
+            }
+        },
+        DESCRIPTION {
+            @Override
+            boolean matches(final LibraryEntry entry, final Query query) {
+                return entry.matchesDescription(query.description);
+            }
+
+            // an exact description is taken as matching a single album
+            @Override
+            double estimate(final Query query, final String type, final SearchIndex index) {
+                return share(1, index.getAlbums("").size());
+            }
+        },
+        FOLLOWERS {
+            @Override
+            boolean matches(final LibraryEntry entry, final Query query) {
+                return entry.matchesFollowers(query.followers);
+            }
+
+            @Override
+            double estimate(final Query query, final String type, final SearchIndex index) {
+                return share(index.countPlaylists(query.followers),
+                             index.getPlaylists("").size());
+            }
+        },
+        VISIBILITY {
+            @Override
+            boolean matches(final LibraryEntry entry, final Query query) {
+                return entry.isVisibleToUser(query.user);
+            }
+
+            @Override
+            double estimate(final Query query, final String type, final SearchIndex index) {
+                return share(index.countVisiblePlaylists(query.user),
+                             index.getPlaylists("").size());
+            }
+        };
+
+        abstract boolean matches(LibraryEntry entry, Query query);
+
+        // the share of the entries expected to match, from 0 to 1
+        abstract double estimate(Query query, String type, SearchIndex index);
+    }
+
+    // the values of a query, the only input of a plan that changes between queries
+    private static final class Query {
+        private final String name;
+        private final String owner;
+        private final String description;
+        private final RangeFilter followers;
+        private final String user;
+
+        Query(final Filters filters, final String user) {
+            name = filters.getName();
+            owner = filters.getOwner();
+            description = filters.getDescription();
+            followers = filters.getFollowers() == null ? null
+                                                       : RangeFilter.parse(filters.getFollowers());
+            this.user = user;
+        }
+    }
+
+    private QueryPlan(final String type, final Source source, final List<Criterion> criteria) {
+        this.type = type;
+        this.source = source;
+        this.criteria = criteria;
+    }
+
+    /**
+     * Gets the plan of a query, compiling it on the first query of its shape.
+     *
+     * @param plans the plans compiled, indexed by shape
+     * @param type the type searched: playlist, podcast or album
+     * @param filters the filters
+     * @return the plan
+     */
+    static QueryPlan of(final QueryPlan[] plans, final String type, final Filters filters) {
+        int shape = TYPES.indexOf(type) << TYPE_SHIFT;
+        if (filters.getName() != null) {
+            shape |= NAME_BIT;
+        }
+        if (filters.getOwner() != null) {
+            shape |= OWNER_BIT;
+        }
+        if (filters.getFollowers() != null) {
+            shape |= FOLLOWERS_BIT;
+        }
+        if (filters.getDescription() != null) {
+            shape |= DESCRIPTION_BIT;
+        }
+
+        if (plans[shape] == null) {
+            plans[shape] = compile(type, filters);
+        }
+        return plans[shape];
+    }
+
+    private static QueryPlan compile(final String type, final Filters filters) {
+        boolean playlist = type.equals("playlist");
+        Source source = Source.ALL;
+        if (filters.getName() != null) {
+            source = Source.NAME;
+        } else if (playlist && filters.getFollowers() != null) {
+            source = Source.FOLLOWERS;
+        }
+
+        List<Criterion> criteria = new ArrayList<>();
+        if (filters.getOwner() != null) {
+            criteria.add(Criterion.OWNER);
+        }
+        if (playlist && filters.getFollowers() != null && source != Source.FOLLOWERS) {
+            criteria.add(Criterion.FOLLOWERS);
+        }
+        if (type.equals("album") && filters.getDescription() != null) {
+            criteria.add(Criterion.DESCRIPTION);
+        }
+        // the whole list of playlists is read from the visible ones only
+        if (playlist && source != Source.ALL) {
+            criteria.add(Criterion.VISIBILITY);
+        }
+
+        return new QueryPlan(type, source, List.copyOf(criteria));
+    }
+
+    /**
+     * Runs the plan.
+     *
+     * @param filters the filters, with the values of this query
+     * @param user the user searching, for the playlist visibility
+     * @param index the search index of the session
+     * @param limit the maximum number of results
+     * @return the entries found, in library order
+     */
+    List<LibraryEntry> run(final Filters filters, final String user, final SearchIndex index,
+                           final int limit) {
+        Query query = new Query(filters, user);
+        Criterion[] ordered = pipeline(query, index);
+
+        List<LibraryEntry> results = new ArrayList<>();
+        for (LibraryEntry entry : candidates(query, index)) {
+            if (results.size() == limit) {
+                break;
+            }
+            if (matchesAll(ordered, entry, query)) {
+                results.add(entry);
+            }
+        }
+        return results;
+    }
+
+    // the criteria by selectivity, estimated again only when the index changed
+    private Criterion[] pipeline(final Query query, final SearchIndex index) {
+        long version = index.getVersion(type);
+        if (pipeline != null && index == orderedIndex && version == orderedVersion) {
+            return pipeline;
+        }
+
+        List<Criterion> ordered = new ArrayList<>(criteria);
+        if (ordered.size() > 1) {
+            Map<Criterion, Double> estimates = new EnumMap<>(Criterion.class);
+            for (Criterion criterion : ordered) {
+                estimates.put(criterion, criterion.estimate(query, type, index));
+            }
+            ordered.sort(Comparator.comparingDouble(estimates::get));
+        }
+
+        pipeline = ordered.toArray(new Criterion[0]);
+        orderedIndex = index;
+        orderedVersion = version;
+        return pipeline;
+    }
+
+    private Iterable<? extends LibraryEntry> candidates(final Query query,
+                                                        final SearchIndex index) {
+        return switch (source) {
+            case NAME -> switch (type) {
+                case "playlist" -> index.getPlaylists(query.name);
+                case "podcast" -> index.getPodcasts(query.name);
+                default -> index.getAlbums(query.name);
+            };
+            case FOLLOWERS -> index.getPlaylists(query.followers);
+            default -> switch (type) {
+                case "playlist" -> index.getVisiblePlaylists(query.user);
+                case "podcast" -> index.getPodcasts("");
+                default -> index.getAlbums("");
+            };
+        };
+    }
+
+    private static double share(final int part, final int total) {
+        return total == 0 ? 0 : (double) part / total;
+    }
+
+    private static boolean matchesAll(final Criterion[] ordered, final LibraryEntry entry,
+                                      final Query query) {
+        for (Criterion criterion : ordered) {
+            if (!criterion.matches(entry, query)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -13,10 +13,12 @@ import java.util.List;
  * The type Search bar.
  */
 public final class SearchBar {
-    private static Admin admin;
+    private final Admin admin;
     private List<LibraryEntry> results;
     private final String user;
     private static final Integer MAX_RESULTS = 5;
+    // the query plans compiled for this user, by query shape
+    private final QueryPlan[] plans = new QueryPlan[QueryPlan.SHAPES];
     @Getter
     private String lastSearchType;
     @Getter
@@ -26,19 +28,14 @@ public final class SearchBar {
     @Getter
     private ContentCreator lastContentCreatorSelected;
 
-    /**
-     * Update admin.
-     */
-    public static void updateAdmin() {
-        admin = Admin.getInstance();
-    }
-
     /**
      * Instantiates a new Search bar.
      *
-     * @param user the user
+     * @param user  the user
+     * @param admin the admin of the session
      */
-    public SearchBar(final String user) {
+    public SearchBar(final String user, final Admin admin) {
+        this.admin = admin;
         this.results = new ArrayList<>();
         this.resultsContentCreator = new ArrayList<>();
         this.user = user;
@@ -60,96 +57,31 @@ public final class SearchBar {
      * @return the list
      */
     public List<LibraryEntry> search(final Filters filters, final String type) {
-        List<LibraryEntry> entries;
-
-        switch (type) {
-            case "song":
-                entries = new ArrayList<>(admin.getSongs());
-
-                if (filters.getName() != null) {
-                    entries = FilterUtils.filterByName(entries, filters.getName());
-                }
-
-                if (filters.getAlbum() != null) {
-                    entries = FilterUtils.filterByAlbum(entries, filters.getAlbum());
-                }
-
-                if (filters.getTags() != null) {
-                    entries = FilterUtils.filterByTags(entries, filters.getTags());
-                }
-
-                if (filters.getLyrics() != null) {
-                    entries = FilterUtils.filterByLyrics(entries, filters.getLyrics());
-                }
-
-                if (filters.getGenre() != null) {
-                    entries = FilterUtils.filterByGenre(entries, filters.getGenre());
-                }
-
-                if (filters.getReleaseYear() != null) {
-                    entries = FilterUtils.filterByReleaseYear(entries, filters.getReleaseYear());
-                }
-
-                if (filters.getArtist() != null) {
-                    entries = FilterUtils.filterByArtist(entries, filters.getArtist());
-                }
-
-                break;
-            case "playlist":
-                entries = new ArrayList<>(admin.getPlaylists());
-
-                entries = FilterUtils.filterByPlaylistVisibility(entries, user);
-
-                if (filters.getName() != null) {
-                    entries = FilterUtils.filterByName(entries, filters.getName());
-                }
-
-                if (filters.getOwner() != null) {
-                    entries = FilterUtils.filterByOwner(entries, filters.getOwner());
-                }
-
-                if (filters.getFollowers() != null) {
-                    entries = FilterUtils.filterByFollowers(entries, filters.getFollowers());
-                }
-
-                break;
-            case "podcast":
-                entries = new ArrayList<>(admin.getPodcasts());
-
-                if (filters.getName() != null) {
-                    entries = FilterUtils.filterByName(entries, filters.getName());
-                }
-
-                if (filters.getOwner() != null) {
-                    entries = FilterUtils.filterByOwner(entries, filters.getOwner());
-                }
-
-                break;
-            case "album":
-                entries = new ArrayList<>(admin.getAlbums());
-
-                if (filters.getName() != null) {
-                    entries = FilterUtils.filterByName(entries, filters.getName());
-                }
-
-                if (filters.getOwner() != null) {
-                    entries = FilterUtils.filterByOwner(entries, filters.getOwner());
-                }
-
-                if (filters.getDescription() != null) {
-                    entries = FilterUtils.filterByDescription(entries, filters.getDescription());
-                }
-
-                break;
-            default:
-                entries = new ArrayList<>();
-        }
-
-        while (entries.size() > MAX_RESULTS) {
-            entries.remove(entries.size() - 1);
+        SearchIndex index = admin.getSearchIndex();
+        String key = SearchCache.key(type, filters, user);
+        List<LibraryEntry> entries = index.getCachedResults(type, key);
+
+        if (entries == null) {
+            switch (type) {
+                case "song":
+                    entries = index.searchSongs(filters, MAX_RESULTS);
+
+                    break;
+                case "playlist":
+                case "podcast":
+                case "album":
+                    entries = QueryPlan.of(plans, type, filters)
+                                       .run(filters, user, index, MAX_RESULTS);
+
+                    break;
+                default:
+                    entries = new ArrayList<>();
+            }
+            index.cacheResults(type, key, entries);
         }
 
-        this.results = entries;
+        // the selection clears the results, so the cached list is copied
+        this.results = new ArrayList<>(entries);
         this.resultsContentCreator.clear();
         this.lastSearchType = type;
         return this.results;
@@ -163,38 +95,32 @@ public final class SearchBar {
      * @return the list
      */
     public List<ContentCreator> searchContentCreator(final Filters filters, final String type) {
-        List<ContentCreator> entries;
+        List<? extends ContentCreator> found;
 
         switch (type) {
             case "artist":
-                entries = new ArrayList<>(admin.getArtists());
-
                 if (filters.getName() != null) {
-                    entries.removeIf(contentCreator
-                                        -> !contentCreator.getUsername().toLowerCase()
-                                                          .startsWith(filters.getName()
-                                                          .toLowerCase()));
+                    found = admin.getSearchIndex().getArtists(filters.getName());
+                } else {
+                    found = admin.getArtists();
                 }
 
                 break;
             case "host":
-                entries = new ArrayList<>(admin.getHosts());
-
                 if (filters.getName() != null) {
-                    entries.removeIf(contentCreator
-                                        -> !contentCreator.getUsername().toLowerCase()
-                                                          .startsWith(filters.getName()
-                                                          .toLowerCase()));
+                    found = admin.getSearchIndex().getHosts(filters.getName());
+                } else {
+                    found = admin.getHosts();
                 }
 
                 break;
             default:
-                entries = new ArrayList<>();
+                found = new ArrayList<>();
         }
 
-        while (entries.size() > MAX_RESULTS) {
-            entries.remove(entries.size() - 1);
-        }
+        // only the kept results are read from the index
+        List<ContentCreator> entries = new ArrayList<>(
+                found.subList(0, Math.min(found.size(), MAX_RESULTS)));
 
         this.resultsContentCreator = entries;
         this.results.clear();
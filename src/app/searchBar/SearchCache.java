@@ -0,0 +1,113 @@
+package app.searchBar;
+
+import app.audio.LibraryEntry;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * The last search results of a session, keyed by the type searched and the normalized
+ * filters (plus the user, for playlists, whose visibility depends on who searches).
+ * The cache keeps the most recently used entries up to its capacity, and every entry
+ * remembers the catalog version of its type it was found at, so a change of the library
+ * makes the older entries of the changed types stale without walking them.
+ */
+final class SearchCache {
+    private static final int CAPACITY = 1024;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(CAPACITY, LOAD_FACTOR,
+                                                                   true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+            return size() > CAPACITY;
+        }
+    };
+
+    private static final class Entry {
+        private final long version;
+        private final List<LibraryEntry> results;
+
+        Entry(final long version, final List<LibraryEntry> results) {
+            this.version = version;
+            this.results = results;
+        }
+    }
+
+    /**
+     * Builds the key of a search. The filters matched ignoring case are lower-cased and
+     * the tags are sorted, so the searches finding the same results share their entry.
+     *
+     * @param type the type searched
+     * @param filters the filters
+     * @param user the user searching
+     * @return the key
+     */
+    static String key(final String type, final Filters filters, final String user) {
+        StringBuilder key = new StringBuilder(type);
+
+        if (type.equals("playlist")) {
+            append(key, user);
+        }
+        append(key, lower(filters.getName()));
+        append(key, lower(filters.getAlbum()));
+        if (filters.getTags() != null && !filters.getTags().isEmpty()) {
+            TreeSet<String> tags = new TreeSet<>();
+            filters.getTags().forEach(tag -> tags.add(lower(tag)));
+            append(key, String.join("\u0000", tags));
+        } else {
+            append(key, null);
+        }
+        append(key, lower(filters.getLyrics()));
+        append(key, lower(filters.getGenre()));
+        append(key, filters.getReleaseYear());
+        append(key, lower(filters.getArtist()));
+        append(key, filters.getOwner());
+        append(key, filters.getFollowers());
+        append(key, filters.getDescription());
+        return key.toString();
+    }
+
+    /**
+     * Gets the results of a search, if they were found at the current version.
+     *
+     * @param key the key of the search
+     * @param version the current catalog version of the type
+     * @return the results, read-only, or null if they have to be searched
+     */
+    List<LibraryEntry> get(final String key, final long version) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.version != version) {
+            return null;
+        }
+        return entry.results;
+    }
+
+    /**
+     * Keeps the results of a search.
+     *
+     * @param key the key of the search
+     * @param version the catalog version of the type the results were found at
+     * @param results the results
+     */
+    void put(final String key, final long version, final List<LibraryEntry> results) {
+        entries.put(key, new Entry(version, List.copyOf(results)));
+    }
+
+    // a missing filter is told apart from any value by its marker
+    private static void append(final StringBuilder key, final String value) {
+        key.append('\u0001');
+        if (value == null) {
+            key.append('\u0002');
+        } else {
+            key.append(value);
+        }
+    }
+
+    private static String lower(final String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,517 @@
+package app.searchBar;
+
+import app.audio.Collections.Album;
+import app.audio.Collections.Playlist;
+import app.audio.Collections.Podcast;
+import app.audio.Files.Song;
+import app.audio.LibraryEntry;
+import app.user.Artist;
+import app.user.Host;
+import app.user.User;
+import app.user.UserAbstract;
+import app.utils.Enums;
+import app.utils.RangeFilter;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * The search indexes of a session, updated by Admin and users whenever the library
+ * changes. Searches read them instead of scanning the library lists.
+ *
+ * <p>The order keys keep the order of the Admin lists: songs and podcasts are listed
+ * in the order they were added, albums and playlists by owner (in the order the owners
+ * were added) and then in the order they were added. The playlists are also kept by
+ * number of followers, so a followers filter reads a range of a sorted map, and by
+ * visibility: the public ones together and the private ones by owner. Every group of
+ * playlists is a map sorted by order key, so the playlists with a range of followers
+ * or visible to a user are read lazily in order by merging the maps of their groups.
+ *
+ * <p>The library songs and podcasts are read from the CatalogIndex shared by all the
+ * sessions, and only the ones added in the session are indexed here. The library ones
+ * come first in the Admin lists and are never removed (only the songs of the albums
+ * and the podcasts of the hosts are), so a search reads the shared index first and
+ * then the session one.
+ *
+ * <p>Every type searched has its own catalog version, bumped by the changes of the
+ * indexes its searches read, which invalidates the results of that type cached before
+ * it. The accounts are not searched through the cache, so they have no version.
+ */
+public final class SearchIndex {
+    private static final int OWNER_SHIFT = 32;
+
+    private final CatalogIndex catalog;
+    private final SongIndex songs = new SongIndex();
+    private final PrefixIndex<Podcast> podcasts = new PrefixIndex<>();
+    private final PrefixIndex<Album> albums = new PrefixIndex<>();
+    private final PrefixIndex<Playlist> playlists = new PrefixIndex<>();
+    private final PrefixIndex<Artist> artists = new PrefixIndex<>();
+    private final PrefixIndex<Host> hosts = new PrefixIndex<>();
+    private final Map<Playlist, Long> playlistOrders = new IdentityHashMap<>();
+    private final TreeMap<Integer, TreeMap<Long, Playlist>> playlistFollowers = new TreeMap<>();
+    private final TreeMap<Long, Playlist> publicPlaylists = new TreeMap<>();
+    private final Map<String, TreeMap<Long, Playlist>> privatePlaylists = new HashMap<>();
+    // the order of every account, the owners of albums and playlists
+    private final Map<UserAbstract, Long> accounts = new IdentityHashMap<>();
+    private long sequence = 0;
+    private final SearchCache cache = new SearchCache();
+    // the catalog version of every type searched, 0 until it changes
+    private final Map<String, Long> versions = new HashMap<>();
+
+    // merges playlist maps sorted by order key
+    private static final class MergeIterator implements Iterator<Playlist> {
+        // the maps not read to the end, by their next order key
+        private final PriorityQueue<Cursor> cursors = new PriorityQueue<>(
+                Comparator.comparingLong((Cursor cursor) -> cursor.next.getKey()));
+
+        MergeIterator(final Collection<TreeMap<Long, Playlist>> maps) {
+            for (TreeMap<Long, Playlist> map : maps) {
+                if (!map.isEmpty()) {
+                    cursors.add(new Cursor(map.entrySet().iterator()));
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !cursors.isEmpty();
+        }
+
+        @Override
+        public Playlist next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            Cursor cursor = cursors.poll();
+            Playlist playlist = cursor.next.getValue();
+            if (cursor.rest.hasNext()) {
+                cursor.next = cursor.rest.next();
+                cursors.add(cursor);
+            }
+            return playlist;
+        }
+    }
+
+    // a map being merged, at its next entry
+    private static final class Cursor {
+        private final Iterator<Map.Entry<Long, Playlist>> rest;
+        private Map.Entry<Long, Playlist> next;
+
+        Cursor(final Iterator<Map.Entry<Long, Playlist>> rest) {
+            this.rest = rest;
+            next = rest.next();
+        }
+    }
+
+    /**
+     * Instantiates a new SearchIndex, over an empty library.
+     */
+    public SearchIndex() {
+        this(new CatalogIndex(List.of(), List.of()));
+    }
+
+    /**
+     * Instantiates a new SearchIndex, over the library songs and podcasts.
+     *
+     * @param catalog the shared index of the library
+     */
+    public SearchIndex(final CatalogIndex catalog) {
+        this.catalog = catalog;
+    }
+
+    /**
+     * Adds a song.
+     *
+     * @param song the song
+     */
+    public void addSong(final Song song) {
+        bump("song");
+        songs.add(song);
+    }
+
+    /**
+     * Removes a song.
+     *
+     * @param song the song
+     */
+    public void removeSong(final Song song) {
+        bump("song");
+        songs.remove(song);
+    }
+
+    /**
+     * Adds a normal user, artist or host.
+     *
+     * @param account the account
+     */
+    public void addAccount(final UserAbstract account) {
+        long order = sequence++;
+        accounts.put(account, order);
+
+        if (account instanceof Artist artist) {
+            artists.add(artist.getUsername(), artist, order);
+        } else if (account instanceof Host host) {
+            hosts.add(host.getUsername(), host, order);
+        }
+    }
+
+    /**
+     * Removes a deleted account. Its albums, podcasts and playlists are removed apart.
+     *
+     * @param account the account
+     */
+    public void removeAccount(final UserAbstract account) {
+        accounts.remove(account);
+
+        if (account instanceof Artist artist) {
+            artists.remove(artist.getUsername(), artist);
+        } else if (account instanceof Host host) {
+            hosts.remove(host.getUsername(), host);
+        }
+    }
+
+    /**
+     * Adds a podcast.
+     *
+     * @param podcast the podcast
+     */
+    public void addPodcast(final Podcast podcast) {
+        bump("podcast");
+        podcasts.add(podcast.getName(), podcast, sequence++);
+    }
+
+    /**
+     * Removes a podcast.
+     *
+     * @param podcast the podcast
+     */
+    public void removePodcast(final Podcast podcast) {
+        bump("podcast");
+        podcasts.remove(podcast.getName(), podcast);
+    }
+
+    /**
+     * Adds an album.
+     *
+     * @param artist the artist of the album
+     * @param album the album
+     */
+    public void addAlbum(final Artist artist, final Album album) {
+        bump("album");
+        albums.add(album.getName(), album, ownedOrder(artist));
+    }
+
+    /**
+     * Removes an album.
+     *
+     * @param album the album
+     */
+    public void removeAlbum(final Album album) {
+        bump("album");
+        albums.remove(album.getName(), album);
+    }
+
+    /**
+     * Adds a playlist.
+     *
+     * @param user the owner of the playlist
+     * @param playlist the playlist
+     */
+    public void addPlaylist(final User user, final Playlist playlist) {
+        bump("playlist");
+        long order = ownedOrder(user);
+        playlists.add(playlist.getName(), playlist, order);
+        playlistOrders.put(playlist, order);
+        addFollowers(playlist);
+        addVisibility(playlist);
+    }
+
+    /**
+     * Removes a playlist.
+     *
+     * @param playlist the playlist
+     */
+    public void removePlaylist(final Playlist playlist) {
+        bump("playlist");
+        playlists.remove(playlist.getName(), playlist);
+        removeVisibility(playlist);
+        removeFollowers(playlist);
+        playlistOrders.remove(playlist);
+    }
+
+    /**
+     * Increases the followers of a playlist.
+     *
+     * @param playlist the playlist
+     */
+    public void increaseFollowers(final Playlist playlist) {
+        bump("playlist");
+        removeFollowers(playlist);
+        playlist.increaseFollowers();
+        addFollowers(playlist);
+    }
+
+    /**
+     * Decreases the followers of a playlist.
+     *
+     * @param playlist the playlist
+     */
+    public void decreaseFollowers(final Playlist playlist) {
+        bump("playlist");
+        removeFollowers(playlist);
+        playlist.decreaseFollowers();
+        addFollowers(playlist);
+    }
+
+    /**
+     * Switches the visibility of a playlist.
+     *
+     * @param playlist the playlist
+     */
+    public void switchVisibility(final Playlist playlist) {
+        bump("playlist");
+        removeVisibility(playlist);
+        playlist.switchVisibility();
+        addVisibility(playlist);
+    }
+
+    /**
+     * Gets the cached results of a search, if the type searched did not change since.
+     *
+     * @param type the type searched
+     * @param key the key of the search
+     * @return the results, read-only, or null if they have to be searched
+     */
+    List<LibraryEntry> getCachedResults(final String type, final String key) {
+        return cache.get(key, getVersion(type));
+    }
+
+    /**
+     * Caches the results of a search, at the current version of the type searched.
+     *
+     * @param type the type searched
+     * @param key the key of the search
+     * @param results the results
+     */
+    void cacheResults(final String type, final String key, final List<LibraryEntry> results) {
+        cache.put(key, getVersion(type), results);
+    }
+
+    /**
+     * Gets the catalog version of a type searched.
+     *
+     * @param type the type searched
+     * @return the version, bumped by every change of the indexes its searches read
+     */
+    long getVersion(final String type) {
+        return versions.getOrDefault(type, 0L);
+    }
+
+    /**
+     * Searches songs.
+     *
+     * @param filters the filters
+     * @param limit the maximum number of results
+     * @return the songs found, in library order
+     */
+    public List<LibraryEntry> searchSongs(final Filters filters, final int limit) {
+        List<LibraryEntry> found = catalog.getSongs().search(filters, limit);
+        if (found.size() < limit) {
+            found.addAll(songs.search(filters, limit - found.size()));
+        }
+        return found;
+    }
+
+    /**
+     * Gets the podcasts whose name starts with a prefix, ignoring case.
+     *
+     * @param prefix the prefix
+     * @return the podcasts, in library order
+     */
+    public List<Podcast> getPodcasts(final String prefix) {
+        List<Podcast> shared = catalog.getPodcasts().search(prefix);
+        List<Podcast> added = podcasts.search(prefix);
+        if (added.isEmpty()) {
+            return shared;
+        } else if (shared.isEmpty()) {
+            return added;
+        }
+
+        // read lazily, as the lists of the prefix indexes
+        return new AbstractList<>() {
+            @Override
+            public Podcast get(final int index) {
+                return index < shared.size() ? shared.get(index)
+                                             : added.get(index - shared.size());
+            }
+
+            @Override
+            public int size() {
+                return shared.size() + added.size();
+            }
+        };
+    }
+
+    /**
+     * Gets the albums whose name starts with a prefix, ignoring case.
+     *
+     * @param prefix the prefix
+     * @return the albums, in library order
+     */
+    public List<Album> getAlbums(final String prefix) {
+        return albums.search(prefix);
+    }
+
+    /**
+     * Gets the playlists whose name starts with a prefix, ignoring case.
+     *
+     * @param prefix the prefix
+     * @return the playlists, in library order
+     */
+    public List<Playlist> getPlaylists(final String prefix) {
+        return playlists.search(prefix);
+    }
+
+    /**
+     * Gets the playlists whose number of followers matches a filter. They are read
+     * lazily, as the visible playlists.
+     *
+     * @param followers the followers filter
+     * @return the playlists, in library order
+     */
+    public Iterable<Playlist> getPlaylists(final RangeFilter followers) {
+        Collection<TreeMap<Long, Playlist>> found = followers.of(playlistFollowers).values();
+        return () -> new MergeIterator(found);
+    }
+
+    /**
+     * Gets the playlists visible to a user: the public ones and the user's private ones.
+     * They are read lazily, so a search stopping at a few results reads only these.
+     *
+     * @param user the user
+     * @return the playlists, in library order
+     */
+    public Iterable<Playlist> getVisiblePlaylists(final String user) {
+        TreeMap<Long, Playlist> owned = privatePlaylists.get(user);
+        if (owned == null) {
+            return publicPlaylists.values();
+        }
+        return () -> new MergeIterator(List.of(publicPlaylists, owned));
+    }
+
+    /**
+     * Gets the artists whose username starts with a prefix, ignoring case.
+     *
+     * @param prefix the prefix
+     * @return the artists, in library order
+     */
+    public List<Artist> getArtists(final String prefix) {
+        return artists.search(prefix);
+    }
+
+    /**
+     * Gets the hosts whose username starts with a prefix, ignoring case.
+     *
+     * @param prefix the prefix
+     * @return the hosts, in library order
+     */
+    public List<Host> getHosts(final String prefix) {
+        return hosts.search(prefix);
+    }
+
+    /**
+     * Counts the owners of a type of collection: the artists for the albums, the hosts
+     * for the podcasts and the normal users for the playlists.
+     *
+     * @param type the type of collection
+     * @return the number of owners
+     */
+    int countOwners(final String type) {
+        return switch (type) {
+            case "album" -> artists.search("").size();
+            case "podcast" -> hosts.search("").size();
+            default -> accounts.size() - artists.search("").size() - hosts.search("").size();
+        };
+    }
+
+    /**
+     * Counts the playlists whose number of followers matches a filter.
+     *
+     * @param followers the followers filter
+     * @return the number of playlists
+     */
+    int countPlaylists(final RangeFilter followers) {
+        int count = 0;
+        for (TreeMap<Long, Playlist> found : followers.of(playlistFollowers).values()) {
+            count += found.size();
+        }
+        return count;
+    }
+
+    /**
+     * Counts the playlists visible to a user.
+     *
+     * @param user the user
+     * @return the number of playlists
+     */
+    int countVisiblePlaylists(final String user) {
+        TreeMap<Long, Playlist> owned = privatePlaylists.get(user);
+        return publicPlaylists.size() + (owned == null ? 0 : owned.size());
+    }
+
+    private void bump(final String type) {
+        versions.merge(type, 1L, Long::sum);
+    }
+
+    private void addFollowers(final Playlist playlist) {
+        playlistFollowers.computeIfAbsent(playlist.getFollowers(), followers -> new TreeMap<>())
+                         .put(playlistOrders.get(playlist), playlist);
+    }
+
+    private void removeFollowers(final Playlist playlist) {
+        TreeMap<Long, Playlist> same = playlistFollowers.get(playlist.getFollowers());
+        if (same != null) {
+            same.remove(playlistOrders.get(playlist));
+            if (same.isEmpty()) {
+                playlistFollowers.remove(playlist.getFollowers());
+            }
+        }
+    }
+
+    private void addVisibility(final Playlist playlist) {
+        long order = playlistOrders.get(playlist);
+        if (playlist.getVisibility() == Enums.Visibility.PUBLIC) {
+            publicPlaylists.put(order, playlist);
+        } else {
+            privatePlaylists.computeIfAbsent(playlist.getOwner(), owner -> new TreeMap<>())
+                            .put(order, playlist);
+        }
+    }
+
+    private void removeVisibility(final Playlist playlist) {
+        long order = playlistOrders.get(playlist);
+        if (playlist.getVisibility() == Enums.Visibility.PUBLIC) {
+            publicPlaylists.remove(order);
+        } else {
+            TreeMap<Long, Playlist> owned = privatePlaylists.get(playlist.getOwner());
+            owned.remove(order);
+            if (owned.isEmpty()) {
+                privatePlaylists.remove(playlist.getOwner());
+            }
+        }
+    }
+
+    private long ownedOrder(final UserAbstract owner) {
+        return (accounts.get(owner) << OWNER_SHIFT) | sequence++;
+    }
+}
@@ -0,0 +1,312 @@
+package app.searchBar;
+
+import app.audio.Files.Song;
+import app.audio.LibraryEntry;
+import app.utils.IntList;
+import app.utils.RangeFilter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The songs of a session indexed for search. Every song gets an increasing id, in the
+ * order of the library, and the ids are kept in postings lists by genre, artist, album,
+ * tag, release year and lyrics trigram, plus a prefix index of the names. A search walks
+ * the smallest postings list of the query (the names with the prefix, if they are fewer),
+ * checks the other filters on every candidate and stops at the wanted number of results.
+ *
+ * <p>A lyrics filter is found in the lower-cased lyrics of a song only if all its
+ * trigrams are, so the trigram postings give the candidates, which are then verified.
+ * The tags are interned and every song has a bit mask of its tags, so a tags filter
+ * walks the postings of its rarest tag and tests the others with a subset test.
+ *
+ * <p>A removed song is taken out of all its postings, and once the removed songs are
+ * more than the songs left, the ids are given again from 0 to the songs left, so
+ * adding and removing albums does not grow the index.
+ */
+final class SongIndex {
+    private static final IntList EMPTY = new IntList();
+    private static final int GRAM = 3;
+    private static final int CHAR_BITS = 16;
+    private static final int WORD_SHIFT = 6;
+
+    // the song of every id, null once removed
+    private final List<Song> songs = new ArrayList<>();
+    private int removed = 0;
+    private final Map<Song, Integer> ids = new IdentityHashMap<>();
+    private final Map<String, IntList> genres = new HashMap<>();
+    private final Map<String, IntList> artists = new HashMap<>();
+    private final Map<String, IntList> albums = new HashMap<>();
+    private final Map<String, IntList> tags = new HashMap<>();
+    private final Map<String, Integer> tagIds = new HashMap<>();
+    // the tag mask of every song id
+    private final List<long[]> tagMasks = new ArrayList<>();
+    private final TreeMap<Integer, IntList> years = new TreeMap<>();
+    private final PrefixIndex<Integer> names = new PrefixIndex<>();
+    private final Map<Long, IntList> trigrams = new HashMap<>();
+
+    /**
+     * Adds a song, after all the songs already in the library.
+     *
+     * @param song the song
+     */
+    public void add(final Song song) {
+        int id = songs.size();
+        songs.add(song);
+        ids.put(song, id);
+
+        post(genres, key(song.getGenre()), id);
+        post(artists, key(song.getArtist()), id);
+        post(albums, key(song.getAlbum()), id);
+        if (song.getTags() != null) {
+            for (String tag : song.getTags()) {
+                post(tags, key(tag), id);
+            }
+        }
+        tagMasks.add(tagMask(song.getTags(), true));
+        post(years, song.getReleaseYear(), id);
+        names.add(song.getName(), id, id);
+
+        String lyrics = key(song.getLyrics());
+        if (lyrics != null) {
+            for (int i = 0; i + GRAM <= lyrics.length(); i++) {
+                post(trigrams, trigram(lyrics, i), id);
+            }
+        }
+    }
+
+    /**
+     * Removes a song from the library.
+     *
+     * @param song the song
+     */
+    public void remove(final Song song) {
+        Integer id = ids.remove(song);
+        if (id == null) {
+            return;
+        }
+
+        songs.set(id, null);
+        tagMasks.set(id, null);
+        removed++;
+
+        unpost(genres, key(song.getGenre()), id);
+        unpost(artists, key(song.getArtist()), id);
+        unpost(albums, key(song.getAlbum()), id);
+        if (song.getTags() != null) {
+            for (String tag : song.getTags()) {
+                unpost(tags, key(tag), id);
+            }
+        }
+        unpost(years, song.getReleaseYear(), id);
+        names.remove(song.getName(), id);
+
+        String lyrics = key(song.getLyrics());
+        if (lyrics != null) {
+            for (int i = 0; i + GRAM <= lyrics.length(); i++) {
+                unpost(trigrams, trigram(lyrics, i), id);
+            }
+        }
+
+        if (removed > ids.size()) {
+            compact();
+        }
+    }
+
+    /**
+     * Searches the songs matching all the filters, in library order.
+     *
+     * @param filters the filters
+     * @param limit the maximum number of results
+     * @return the songs found
+     */
+    public List<LibraryEntry> search(final Filters filters, final int limit) {
+        List<IntList> postings = new ArrayList<>();
+        // the ids of the names with the prefix, read only when they are the candidates
+        List<Integer> named = filters.getName() == null ? null : names.search(filters.getName());
+        String name = key(filters.getName());
+
+        if (filters.getGenre() != null) {
+            postings.add(genres.getOrDefault(key(filters.getGenre()), EMPTY));
+        }
+        if (filters.getArtist() != null) {
+            postings.add(artists.getOrDefault(key(filters.getArtist()), EMPTY));
+        }
+        if (filters.getAlbum() != null) {
+            postings.add(albums.getOrDefault(key(filters.getAlbum()), EMPTY));
+        }
+        long[] tagMask = tagMask(filters.getTags(), false);
+        if (tagMask == null) {
+            // a tag no song has
+            return new ArrayList<>();
+        }
+        if (filters.getTags() != null && !filters.getTags().isEmpty()) {
+            postings.add(filters.getTags().stream()
+                                .map(tag -> tags.getOrDefault(key(tag), EMPTY))
+                                .min(Comparator.comparingInt(IntList::size)).orElseThrow());
+        }
+        if (filters.getLyrics() != null) {
+            String lyrics = key(filters.getLyrics());
+            Set<Long> grams = new HashSet<>();
+            for (int i = 0; i + GRAM <= lyrics.length(); i++) {
+                if (grams.add(trigram(lyrics, i))) {
+                    postings.add(trigrams.getOrDefault(trigram(lyrics, i), EMPTY));
+                }
+            }
+        }
+        RangeFilter releaseYear = null;
+        if (filters.getReleaseYear() != null) {
+            releaseYear = RangeFilter.parse(filters.getReleaseYear());
+            // a year range is merged into postings only when nothing else narrows the search
+            if (releaseYear.isSingle() || postings.isEmpty() && named == null) {
+                postings.add(merge(releaseYear.of(years).values()));
+            }
+        }
+
+        postings.sort(Comparator.comparingInt(IntList::size));
+
+        boolean byName = named != null
+                         && (postings.isEmpty() || named.size() < postings.get(0).size());
+        int first = byName ? 0 : 1;
+        int candidates = byName ? named.size()
+                         : postings.isEmpty() ? songs.size() : postings.get(0).size();
+        List<LibraryEntry> results = new ArrayList<>();
+
+        for (int i = 0; i < candidates && results.size() < limit; i++) {
+            int id = byName ? named.get(i) : postings.isEmpty() ? i : postings.get(0).get(i);
+            Song song = songs.get(id);
+
+            if (song != null && inAll(postings, first, id)
+                && containsAll(tagMasks.get(id), tagMask)
+                && (name == null || byName || key(song.getName()).startsWith(name))
+                && (filters.getLyrics() == null || song.matchesLyrics(filters.getLyrics()))
+                && (releaseYear == null || song.matchesReleaseYear(releaseYear))) {
+                results.add(song);
+            }
+        }
+
+        return results;
+    }
+
+    // the songs left are added again, with ids from 0
+    private void compact() {
+        List<Song> left = songs.stream().filter(Objects::nonNull).toList();
+
+        songs.clear();
+        ids.clear();
+        removed = 0;
+        genres.clear();
+        artists.clear();
+        albums.clear();
+        tags.clear();
+        tagIds.clear();
+        tagMasks.clear();
+        years.clear();
+        names.clear();
+        trigrams.clear();
+
+        left.forEach(this::add);
+    }
+
+    // the mask of the tags, null if a tag is unknown and it should not be interned
+    private long[] tagMask(final List<String> tagList, final boolean intern) {
+        List<Integer> ids = new ArrayList<>();
+        if (tagList != null) {
+            for (String tag : tagList) {
+                Integer tagId = tagIds.get(key(tag));
+                if (tagId == null && !intern) {
+                    return null;
+                } else if (tagId == null) {
+                    tagId = tagIds.size();
+                    tagIds.put(key(tag), tagId);
+                }
+                ids.add(tagId);
+            }
+        }
+
+        long[] mask = new long[(tagIds.size() >> WORD_SHIFT) + 1];
+        for (int tagId : ids) {
+            mask[tagId >> WORD_SHIFT] |= 1L << tagId;
+        }
+        return mask;
+    }
+
+    private static boolean containsAll(final long[] mask, final long[] subset) {
+        for (int i = 0; i < subset.length; i++) {
+            long word = i < mask.length ? mask[i] : 0;
+            if ((word & subset[i]) != subset[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static IntList merge(final Collection<IntList> lists) {
+        if (lists.size() == 1) {
+            return lists.iterator().next();
+        }
+
+        List<Integer> ids = new ArrayList<>();
+        for (IntList list : lists) {
+            for (int i = 0; i < list.size(); i++) {
+                ids.add(list.get(i));
+            }
+        }
+        ids.sort(null);
+
+        IntList merged = new IntList();
+        ids.forEach(merged::add);
+        return merged;
+    }
+
+    private static boolean inAll(final List<IntList> postings, final int first, final int id) {
+        for (int i = first; i < postings.size(); i++) {
+            if (!postings.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static <K> void post(final Map<K, IntList> index, final K key, final int id) {
+        if (key == null) {
+            return;
+        }
+
+        IntList posting = index.computeIfAbsent(key, k -> new IntList());
+        // a song with a repeated tag is posted once
+        if (posting.last() != id) {
+            posting.add(id);
+        }
+    }
+
+    private static <K> void unpost(final Map<K, IntList> index, final K key, final int id) {
+        IntList posting = key == null ? null : index.get(key);
+        // a repeated tag or trigram was already removed
+        if (posting != null && posting.remove(id) && posting.size() == 0) {
+            index.remove(key);
+        }
+    }
+
+    private static long trigram(final String text, final int start) {
+        long gram = 0;
+        for (int i = start; i < start + GRAM; i++) {
+            gram = (gram << CHAR_BITS) | text.charAt(i);
+        }
+        return gram;
+    }
+
+    private static String key(final String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,7 +1,11 @@
 package app.user;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
 
 import app.audio.Collections.Album;
 import app.audio.Collections.AlbumOutput;
@@ -25,6 +29,28 @@ public final class Artist extends ContentCreator {
     private int ranking;
     private String mostProfitableSong;
     private int listens;
+    // the number of users whose listens paid the songs
+    private int songPayers;
+    // revenue of every song by recorded entry id, accrued while users listen
+    private final Map<Integer, SongRevenue> songRevenues = new HashMap<>();
+    // the songs paid, the most profitable first
+    private final TreeSet<SongRevenue> profitableSongs = new TreeSet<>(
+            Comparator.comparingDouble((SongRevenue paid) -> -paid.revenue)
+                      .thenComparing(paid -> paid.song)
+                      .thenComparingInt(paid -> paid.songId));
+
+    private static final class SongRevenue {
+        private final int songId;
+        private final String song;
+        private double revenue = 0;
+        // the number of users whose listens paid the song
+        private int payers = 0;
+
+        SongRevenue(final int songId, final String song) {
+            this.songId = songId;
+            this.song = song;
+        }
+    }
 
     /**
      * Instantiates a new Artist.
@@ -122,4 +148,76 @@ public final class Artist extends ContentCreator {
     public double totalRevenue() {
         return songRevenue + merchRevenue;
     }
+
+    /**
+     * Adds revenue to the songs of the artist, paid by the listens of a user.
+     *
+     * @param revenue the revenue added
+     * @param newPayer whether the user did not pay the artist before
+     */
+    public void addSongRevenue(final double revenue, final boolean newPayer) {
+        songRevenue += revenue;
+        if (newPayer) {
+            songPayers++;
+        }
+    }
+
+    /**
+     * Removes the song revenue paid by the listens of a deleted user. Without other
+     * payers, the revenue is zero again rather than what the subtraction leaves.
+     *
+     * @param revenue the revenue the user paid
+     */
+    public void removeSongRevenue(final double revenue) {
+        songPayers--;
+        songRevenue = songPayers == 0 ? 0 : songRevenue - revenue;
+    }
+
+    /**
+     * Adds revenue to a song of the artist, paid by the listens of a user, updating the
+     * most profitable song; in equality case, the lexicographical order is taken into
+     * consideration.
+     *
+     * @param songId the recorded entry id of the song
+     * @param song the song name
+     * @param revenue the revenue added
+     * @param newPayer whether the user did not pay the song before
+     */
+    public void addSongRevenue(final int songId, final String song, final double revenue,
+                               final boolean newPayer) {
+        SongRevenue paid = songRevenues.computeIfAbsent(songId,
+                                                        id -> new SongRevenue(id, song));
+        profitableSongs.remove(paid);
+        paid.revenue += revenue;
+        if (newPayer) {
+            paid.payers++;
+        }
+        profitableSongs.add(paid);
+        updateMostProfitableSong();
+    }
+
+    /**
+     * Removes the revenue a deleted user paid to a song of the artist, updating the most
+     * profitable song. A song no one else paid is dropped.
+     *
+     * @param songId the recorded entry id of the song
+     * @param revenue the revenue the user paid
+     */
+    public void removeSongRevenue(final int songId, final double revenue) {
+        SongRevenue paid = songRevenues.get(songId);
+        profitableSongs.remove(paid);
+        paid.payers--;
+        if (paid.payers == 0) {
+            songRevenues.remove(songId);
+        } else {
+            paid.revenue -= revenue;
+            profitableSongs.add(paid);
+        }
+        updateMostProfitableSong();
+    }
+
+    private void updateMostProfitableSong() {
+        SongRevenue best = profitableSongs.isEmpty() ? null : profitableSongs.first();
+        mostProfitableSong = best == null || best.revenue == 0 ? "N/A" : best.song;
+    }
 }
@@ -15,9 +15,11 @@ import app.player.Player;
 import app.player.PlayerStats;
 import app.searchBar.Filters;
 import app.searchBar.SearchBar;
+import app.notifications.Inbox;
 import app.notifications.Notification;
 import app.notifications.Observer;
 import app.utils.Enums;
+import app.utils.IntCounter;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -26,6 +28,7 @@ import java.util.List;
 import java.util.Random;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Comparator;
 import java.util.Set;
@@ -72,9 +75,9 @@ public final class User extends UserAbstract implements Observer {
     @Getter
     @Setter
     private ArrayList<String> purchasedMerch;
-    private ArrayList<Notification> notifications;
+    private final Inbox notifications;
     @Getter
-    private ArrayList<String> subscriptions;
+    private final Set<String> subscriptions = new LinkedHashSet<>();
     private final int audioSeed = 30;
     private final int topRecommended = 3;
     private final int randSongsFirstGenre = 5;
@@ -84,6 +87,11 @@ public final class User extends UserAbstract implements Observer {
     @Getter
     @Setter
     private boolean premiumType;
+    // the session time up to which the player was simulated
+    @Getter
+    @Setter
+    private int simulatedUntil;
+    private final Admin admin;
 
     /**
      * Instantiates a new User.
@@ -91,24 +99,25 @@ public final class User extends UserAbstract implements Observer {
      * @param username the username
      * @param age      the age
      * @param city     the city
+     * @param admin    the admin of the session
      */
-    public User(final String username, final int age, final String city) {
+    public User(final String username, final int age, final String city, final Admin admin) {
         super(username, age, city);
+        this.admin = admin;
         playlists = new ArrayList<>();
         likedSongs = new ArrayList<>();
         songRecommendations = new ArrayList<>();
         playlistRecommendations = new ArrayList<>();
         followedPlaylists = new ArrayList<>();
-        notifications = new ArrayList<>();
-        subscriptions = new ArrayList<>();
         purchasedMerch = new ArrayList<>();
-        player = new Player();
-        searchBar = new SearchBar(username);
+        notifications = new Inbox(admin.getInboxRetention());
+        player = new Player(admin);
+        searchBar = new SearchBar(username, admin);
         lastSearched = false;
         status = true;
         premiumType = false;
 
-        homePage = new HomePage(getLikedSongs(), getFollowedPlaylists());
+        homePage = new HomePage(getLikedSongs(), getFollowedPlaylists(), admin::getLikes);
         currentPage = homePage;
         pageHistory = new ArrayList<>();
         pageIndex = -1;
@@ -408,13 +417,13 @@ public final class User extends UserAbstract implements Observer {
 
         if (likedSongs.contains(song)) {
             likedSongs.remove(song);
-            song.dislike();
+            admin.dislike(song);
 
             return "Unlike registered successfully.";
         }
 
         likedSongs.add(song);
-        song.like();
+        admin.like(song);
         return "Like registered successfully.";
     }
 
@@ -478,7 +487,9 @@ public final class User extends UserAbstract implements Observer {
             return "A playlist with the same name already exists.";
         }
 
-        playlists.add(new Playlist(name, getUsername(), timestamp));
+        Playlist playlist = new Playlist(name, getUsername(), timestamp);
+        playlists.add(playlist);
+        admin.getSearchIndex().addPlaylist(this, playlist);
 
         return "Playlist created successfully.";
     }
@@ -533,7 +544,7 @@ public final class User extends UserAbstract implements Observer {
         }
 
         Playlist playlist = playlists.get(playlistId - 1);
-        playlist.switchVisibility();
+        admin.getSearchIndex().switchVisibility(playlist);
 
         if (playlist.getVisibility() == Enums.Visibility.PUBLIC) {
             return "Visibility status updated successfully to public.";
@@ -585,13 +596,13 @@ public final class User extends UserAbstract implements Observer {
 
         if (followedPlaylists.contains(playlist)) {
             followedPlaylists.remove(playlist);
-            playlist.decreaseFollowers();
+            admin.getSearchIndex().decreaseFollowers(playlist);
 
             return "Playlist unfollowed successfully.";
         }
 
         followedPlaylists.add(playlist);
-        playlist.increaseFollowers();
+        admin.getSearchIndex().increaseFollowers(playlist);
 
 
         return "Playlist followed successfully.";
@@ -726,7 +737,7 @@ public final class User extends UserAbstract implements Observer {
         recommendedPlaylist = null;
 
         homePage = new HomePage(getLikedSongs(), getFollowedPlaylists(),
-                getSongRecommendations(), getPlaylistRecommendations());
+                getSongRecommendations(), getPlaylistRecommendations(), admin::getLikes);
 
         currentPage = homePage;
     }
@@ -800,7 +811,8 @@ public final class User extends UserAbstract implements Observer {
         int len = playlistSongs.size();
         for (int i = 0; i < len; i++) {
             for (int j = i + 1; j < len; j++) {
-                if (playlistSongs.get(i).getLikes() < playlistSongs.get(j).getLikes()) {
+                if (admin.getLikes(playlistSongs.get(i))
+                    < admin.getLikes(playlistSongs.get(j))) {
                     Song temp = playlistSongs.get(i);
                     playlistSongs.set(i, playlistSongs.get(j));
                     playlistSongs.set(j, temp);
@@ -818,7 +830,7 @@ public final class User extends UserAbstract implements Observer {
         playlistRecommendations.add(playlist);
 
         homePage = new HomePage(getLikedSongs(), getFollowedPlaylists(),
-                getSongRecommendations(), getPlaylistRecommendations());
+                getSongRecommendations(), getPlaylistRecommendations(), admin::getLikes);
 
         currentPage = homePage;
 
@@ -892,7 +904,7 @@ public final class User extends UserAbstract implements Observer {
 
         for (User user: users) {
             List<Song> likedSongsItr = user.getLikedSongs();
-            likedSongsItr.sort(Comparator.comparingInt(Song::getLikes));
+            likedSongsItr.sort(Comparator.comparingInt(admin::getLikes));
             int i = 0;
 
             while (i < likedSongsItr.size() && i < topReference) {
@@ -905,7 +917,7 @@ public final class User extends UserAbstract implements Observer {
         Set<Song> auxSongs = new HashSet<>(playlistSongs);
         playlistSongs = new ArrayList<>(auxSongs);
 
-        playlistSongs.sort(Comparator.comparingInt(Song::getLikes));
+        playlistSongs.sort(Comparator.comparingInt(admin::getLikes));
         Playlist playlist = new Playlist("%s Fan Club recommendations"
                 .formatted(((Song) audioFile).getArtist()), getUsername());
 
@@ -917,7 +929,7 @@ public final class User extends UserAbstract implements Observer {
         playlistRecommendations.add(playlist);
 
         homePage = new HomePage(getLikedSongs(), getFollowedPlaylists(),
-                getSongRecommendations(), getPlaylistRecommendations());
+                getSongRecommendations(), getPlaylistRecommendations(), admin::getLikes);
 
         currentPage = homePage;
 
@@ -941,14 +953,14 @@ public final class User extends UserAbstract implements Observer {
 
         for (User user: users) {
             currentListens = 0;
-            HashMap<RecordedEntry, Integer> recList = user.player.getRecordedEntries();
+            IntCounter recList = user.player.getRecordedEntries();
 
-            for (Map.Entry<RecordedEntry, Integer> rec: recList.entrySet()) {
-                RecordedEntry audioProduct = rec.getKey();
+            for (int i = 0; i < recList.size(); i++) {
+                RecordedEntry audioProduct = admin.getEntryRegistry().getEntry(recList.keyAt(i));
 
                 if (audioProduct.getCreator().equals(artist)
                     && audioProduct.getType().equals("song")) {
-                    currentListens += rec.getValue();
+                    currentListens += recList.countAt(i);
                 }
             }
 
@@ -1019,11 +1031,11 @@ public final class User extends UserAbstract implements Observer {
 
             if (collection != null) {
                 artistName = collection.getOwner();
-                Artist artist = Admin.getInstance().getArtist(artistName);
+                Artist artist = admin.getArtist(artistName);
                 setCurrentPage(artist.getPage());
             } else {
                 artistName = ((Song) file).getArtist();
-                Artist artist = Admin.getInstance().getArtist(artistName);
+                Artist artist = admin.getArtist(artistName);
                 setCurrentPage(artist.getPage());
             }
 
@@ -1034,7 +1046,7 @@ public final class User extends UserAbstract implements Observer {
         } else {
             if (collection != null) {
                 String hostName = collection.getOwner();
-                Host host = Admin.getInstance().getHost(hostName);
+                Host host = admin.getHost(hostName);
                 setCurrentPage(host.getPage());
 
                 pageHistory.add(currentPage);
@@ -1055,31 +1067,33 @@ public final class User extends UserAbstract implements Observer {
     /**
      * In the case the subscription command is valid, it adds the subscription
      * when the targeted content creator is not already present in the list
-     * Otherwise, it removes it (unsubscribe).
+     * Otherwise, it removes it (unsubscribe). The notification manager is
+     * updated to send the content creator notifications to this user.
      *
      * @param subscription the name of the content creator
      * @return true for subscribe, false for unsubscribe
      */
     public boolean addSubscription(final String subscription) {
-        if (subscriptions.contains(subscription)) {
-            subscriptions.remove(subscription);
+        if (subscriptions.remove(subscription)) {
+            admin.getNotificationManager().unsubscribe(this, subscription);
             return false;
         }
 
         subscriptions.add(subscription);
+        admin.getNotificationManager().subscribe(this, subscription);
         return true;
     }
 
     /**
      * Returns the received notifications and then deletes them from
-     * the recorded notifications (notifications are seen only once).
+     * the recorded notifications (notifications are seen only once). The
+     * notifications still being delivered to the user are waited for.
      *
-     * @return the arraylist of notifications
+     * @return the list of notifications
      */
-    public ArrayList<Notification> getNotifications() {
-        ArrayList<Notification> outputNotifications = new ArrayList<>(notifications);
-        notifications.clear();
-        return outputNotifications;
+    public List<Notification> getNotifications() {
+        admin.getNotificationManager().await(this);
+        return notifications.drain();
     }
 
     /**
@@ -1,5 +1,7 @@
 package app.user;
 
+import app.Admin;
+
 public final class UserFactory {
     private UserFactory() {
     }
@@ -11,12 +13,14 @@ public final class UserFactory {
      * @param username the username of the user
      * @param age the age of the user
      * @param city the city of the user
+     * @param admin the admin of the session the user belongs to
      * @return the new user instance
      */
     public static UserAbstract createUser(final String userType,
-                                  final String username, final int age, final String city) {
+                                  final String username, final int age, final String city,
+                                  final Admin admin) {
         return switch (userType) {
-            case "user" -> new User(username, age, city);
+            case "user" -> new User(username, age, city, admin);
             case "artist" -> new Artist(username, age, city);
             case "host" -> new Host(username, age, city);
             default -> throw new IllegalArgumentException("Not recognized user " + userType);
@@ -1,7 +1,9 @@
 package app.user.wrap;
 
+import app.audio.EntryRegistry;
 import app.audio.RecordedEntry;
 import app.user.User;
+import app.utils.IntCounter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
@@ -10,54 +12,42 @@ import lombok.Setter;
 
 import java.util.List;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
 @Getter
 @Setter
 public final class ArtistWrap implements WrapStrategy {
-    private static ArtistWrap instance = null;
     private List<User> users;
+    private EntryRegistry entryRegistry;
     private String username;
     private final int topReference = 5;
 
-    private ArtistWrap() {
-    }
-
     /**
-     * Lazy instantiation
-     *
-     * @return Singleton instance
+     * Instantiates a new Artist wrap.
      */
-    public static ArtistWrap getInstance() {
-        if (instance == null) {
-            instance = new ArtistWrap();
-        }
-
-        return instance;
+    public ArtistWrap() {
     }
 
     /**
      * Adding in topSongs all user songs from a given artist
      *
      * @param currentUserRec the recorded entries for the user in iteration
-     * @param topSongs the songs hashmap
+     * @param topSongs the listens by song entry id
      * @return the total number of listens from the user in iteration
      */
-    public int insertSongs(final HashMap<RecordedEntry, Integer> currentUserRec,
-                           final LinkedHashMap<RecordedEntry, Integer> topSongs) {
+    public int insertSongs(final IntCounter currentUserRec, final IntCounter topSongs) {
         int currentListens = 0;
 
-        for (Map.Entry<RecordedEntry, Integer> rec: currentUserRec.entrySet()) {
-            RecordedEntry recorded = rec.getKey();
+        for (int i = 0; i < currentUserRec.size(); i++) {
+            RecordedEntry recorded = entryRegistry.getEntry(currentUserRec.keyAt(i));
+            int listens = currentUserRec.countAt(i);
 
             if (recorded.getType().equalsIgnoreCase("song")
                 && recorded.getCreator().equalsIgnoreCase(username)) {
 
-                currentListens += rec.getValue();
-                topSongs.put(rec.getKey(),
-                        topSongs.getOrDefault(rec.getKey(), 0) + rec.getValue());
+                currentListens += listens;
+                topSongs.add(recorded.getId(), listens);
             }
         }
 
@@ -68,18 +58,17 @@ public final class ArtistWrap implements WrapStrategy {
      * Adding in topAlbums all user albums from a given artist
      *
      * @param currentUserRec the recorded entries for the user in iteration
-     * @param topAlbums the albums hashmap
+     * @param topAlbums the listens by album entry id
      */
-    public void insertAlbums(final HashMap<RecordedEntry, Integer> currentUserRec,
-                             final LinkedHashMap<RecordedEntry, Integer> topAlbums) {
-        for (Map.Entry<RecordedEntry, Integer> rec: currentUserRec.entrySet()) {
-            RecordedEntry recorded = rec.getKey();
+    public void insertAlbums(final IntCounter currentUserRec, final IntCounter topAlbums) {
+        for (int i = 0; i < currentUserRec.size(); i++) {
+            RecordedEntry recorded = entryRegistry.getEntry(currentUserRec.keyAt(i));
+            int listens = currentUserRec.countAt(i);
 
             if (recorded.getType().equalsIgnoreCase("album")
                 && recorded.getCreator().equalsIgnoreCase(username)) {
 
-                topAlbums.put(rec.getKey(),
-                        topAlbums.getOrDefault(rec.getKey(), 0) + rec.getValue());
+                topAlbums.add(recorded.getId(), listens);
             }
         }
     }
@@ -112,12 +101,12 @@ public final class ArtistWrap implements WrapStrategy {
 
         int listeners = 0, currentListens;
 
-        // find different object types from recorded entries
-        LinkedHashMap<RecordedEntry, Integer> topSongs = new LinkedHashMap<>();
-        LinkedHashMap<RecordedEntry, Integer> topAlbums = new LinkedHashMap<>();
+        // find different object types from recorded entries, counted by entry id
+        IntCounter songListens = new IntCounter();
+        IntCounter albumListens = new IntCounter();
         LinkedHashMap<String, Integer> topUsers = new LinkedHashMap<>();
 
-        HashMap<RecordedEntry, Integer> currentUserRec;
+        IntCounter currentUserRec;
 
         for (User user: users) {
             currentListens = 0;
@@ -125,8 +114,8 @@ public final class ArtistWrap implements WrapStrategy {
             currentUserRec = user.getPlayer().getRecordedEntries();
 
             // avoiding duplicates and counting listens
-            currentListens += insertSongs(currentUserRec, topSongs);
-            insertAlbums(currentUserRec, topAlbums);
+            currentListens += insertSongs(currentUserRec, songListens);
+            insertAlbums(currentUserRec, albumListens);
             topUsers.put(user.getUsername(), currentListens);
 
             if (currentListens != 0) {
@@ -134,6 +123,8 @@ public final class ArtistWrap implements WrapStrategy {
             }
         }
 
+        LinkedHashMap<RecordedEntry, Integer> topSongs = toRecorded(songListens, entryRegistry);
+        LinkedHashMap<RecordedEntry, Integer> topAlbums = toRecorded(albumListens, entryRegistry);
         sortData(topAlbums, topSongs, topUsers);
 
         if (emptyData(topSongs, topAlbums, topUsers) || listeners == 0) {
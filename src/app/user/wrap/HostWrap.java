@@ -1,14 +1,15 @@
 package app.user.wrap;
 
+import app.audio.EntryRegistry;
 import app.audio.RecordedEntry;
 import app.user.User;
+import app.utils.IntCounter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import lombok.Getter;
 import lombok.Setter;
 
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -16,47 +17,36 @@ import java.util.Map;
 @Getter
 @Setter
 public final class HostWrap implements WrapStrategy {
-    private static HostWrap instance = null;
     private List<User> users;
+    private EntryRegistry entryRegistry;
     private String username;
     private final int topReference = 5;
 
-    private HostWrap() {
-    }
-
     /**
-     * Lazy instantiation
-     *
-     * @return Singleton instance
+     * Instantiates a new Host wrap.
      */
-    public static HostWrap getInstance() {
-        if (instance == null) {
-            instance = new HostWrap();
-        }
-
-        return instance;
+    public HostWrap() {
     }
 
     /**
      * Adding in topSongs all user songs from a given artist
      *
      * @param currentUserRec the recorded entries for the user in iteration
-     * @param topEpisodes the episodes hashmap
+     * @param topEpisodes the listens by episode entry id
      * @return the total number of listens from the user in iteration
      */
-    public int insertEpisodes(final HashMap<RecordedEntry, Integer> currentUserRec,
-                           final LinkedHashMap<RecordedEntry, Integer> topEpisodes) {
+    public int insertEpisodes(final IntCounter currentUserRec, final IntCounter topEpisodes) {
         int currentListens = 0;
 
-        for (Map.Entry<RecordedEntry, Integer> rec: currentUserRec.entrySet()) {
-            RecordedEntry recorded = rec.getKey();
+        for (int i = 0; i < currentUserRec.size(); i++) {
+            RecordedEntry recorded = entryRegistry.getEntry(currentUserRec.keyAt(i));
+            int listens = currentUserRec.countAt(i);
 
             if (recorded.getType().equalsIgnoreCase("episode")
                     && recorded.getCreator().equalsIgnoreCase(username)) {
 
-                currentListens += rec.getValue();
-                topEpisodes.put(rec.getKey(),
-                        topEpisodes.getOrDefault(rec.getKey(), 0) + rec.getValue());
+                currentListens += listens;
+                topEpisodes.add(recorded.getId(), listens);
             }
         }
 
@@ -70,8 +60,8 @@ public final class HostWrap implements WrapStrategy {
 
         int listeners = 0, currentListens;
 
-        LinkedHashMap<RecordedEntry, Integer> topEpisodes = new LinkedHashMap<>();
-        HashMap<RecordedEntry, Integer> currentUserRec;
+        IntCounter episodeListens = new IntCounter();
+        IntCounter currentUserRec;
 
         for (User user: users) {
             currentListens = 0;
@@ -79,13 +69,15 @@ public final class HostWrap implements WrapStrategy {
             currentUserRec = user.getPlayer().getRecordedEntries();
 
             // avoids duplicates and counts listens
-            currentListens += insertEpisodes(currentUserRec, topEpisodes);
+            currentListens += insertEpisodes(currentUserRec, episodeListens);
 
             if (currentListens != 0) {
                 listeners++;
             }
         }
 
+        LinkedHashMap<RecordedEntry, Integer> topEpisodes = toRecorded(episodeListens,
+                                                                       entryRegistry);
         sortRecorded(topEpisodes, topReference);
 
         if (topEpisodes.isEmpty()) {
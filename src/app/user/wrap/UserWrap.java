@@ -1,6 +1,8 @@
 package app.user.wrap;
 
+import app.audio.EntryRegistry;
 import app.audio.RecordedEntry;
+import app.utils.IntCounter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
@@ -10,30 +12,20 @@ import lombok.Setter;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Getter
 @Setter
 public final class UserWrap implements WrapStrategy {
-    private static UserWrap instance = null;
-    private HashMap<RecordedEntry, Integer> recordedEntries;
+    private IntCounter recordedEntries;
+    private EntryRegistry entryRegistry;
     private HashMap<String, Integer> listenedGenres;
     private String username;
     private final int topReference = 5;
 
-    private UserWrap() {
-    }
-
     /**
-     * Lazy instantiation
-     *
-     * @return Singleton instance
+     * Instantiates a new User wrap.
      */
-    public static UserWrap getInstance() {
-        if (instance == null) {
-            instance = new UserWrap();
-        }
-        return instance;
+    public UserWrap() {
     }
 
     /**
@@ -84,35 +76,21 @@ public final class UserWrap implements WrapStrategy {
         LinkedHashMap<String, Integer> albums = new LinkedHashMap<>();
 
         // specialized library entry lists from the recordedEntries
-        LinkedHashMap<RecordedEntry, Integer> songs = recordedEntries.entrySet()
-                .stream()
-                .filter(obj -> "song".equals(obj.getKey().getType()))
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        Map.Entry::getValue,
-                        (obj1, obj2) -> obj1,
-                        LinkedHashMap::new
-                ));
-
-        LinkedHashMap<RecordedEntry, Integer> auxAlbums = recordedEntries.entrySet()
-                .stream()
-                .filter(obj -> "album".equals(obj.getKey().getType()))
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        Map.Entry::getValue,
-                        (obj1, obj2) -> obj1,
-                        LinkedHashMap::new
-                ));
-
-        LinkedHashMap<RecordedEntry, Integer> episodes = recordedEntries.entrySet()
-                .stream()
-                .filter(obj -> "episode".equals(obj.getKey().getType()))
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        Map.Entry::getValue,
-                        (obj1, obj2) -> obj1,
-                        LinkedHashMap::new
-                ));
+        LinkedHashMap<RecordedEntry, Integer> songs = new LinkedHashMap<>();
+        LinkedHashMap<RecordedEntry, Integer> auxAlbums = new LinkedHashMap<>();
+        LinkedHashMap<RecordedEntry, Integer> episodes = new LinkedHashMap<>();
+
+        for (int i = 0; i < recordedEntries.size(); i++) {
+            RecordedEntry rec = entryRegistry.getEntry(recordedEntries.keyAt(i));
+            int listens = recordedEntries.countAt(i);
+
+            switch (rec.getType()) {
+                case "song" -> songs.put(rec, listens);
+                case "album" -> auxAlbums.put(rec, listens);
+                case "episode" -> episodes.put(rec, listens);
+                default -> { }
+            }
+        }
 
         for (Map.Entry<RecordedEntry, Integer> album: auxAlbums.entrySet()) {
             RecordedEntry rec = album.getKey();
@@ -1,6 +1,8 @@
 package app.user.wrap;
 
+import app.audio.EntryRegistry;
 import app.audio.RecordedEntry;
+import app.utils.IntCounter;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import java.util.Map;
@@ -79,6 +81,23 @@ public interface WrapStrategy {
         }
     }
 
+    /**
+     * Gets the entries of listens counted by entry id, in the same order
+     *
+     * @param listens the listens by entry id
+     * @param entryRegistry the registry of the entries
+     * @return the listens by entry
+     */
+    default LinkedHashMap<RecordedEntry, Integer> toRecorded(final IntCounter listens,
+                                                             final EntryRegistry entryRegistry) {
+        LinkedHashMap<RecordedEntry, Integer> map = new LinkedHashMap<>();
+        for (int i = 0; i < listens.size(); i++) {
+            map.put(entryRegistry.getEntry(listens.keyAt(i)), listens.countAt(i));
+        }
+
+        return map;
+    }
+
     /**
      * Command model to generate statics depending on the user type
      *
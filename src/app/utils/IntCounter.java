@@ -0,0 +1,107 @@
+package app.utils;
+
+import java.util.Arrays;
+
+/**
+ * Counts int keys without boxing: an open addressing table points into parallel key and
+ * count arrays, which keep the insertion order of the keys.
+ */
+public final class IntCounter {
+    private static final int INITIAL_CAPACITY = 8;
+    private static final int HASH_MULTIPLIER = 0x9e3779b9;
+
+    private int[] keys = new int[INITIAL_CAPACITY];
+    private int[] counts = new int[INITIAL_CAPACITY];
+    // position + 1 of every key in keys, 0 for free slots; at most half full
+    private int[] slots = new int[2 * INITIAL_CAPACITY];
+    private int size = 0;
+
+    /**
+     * Adds to the count of a key.
+     *
+     * @param key the key
+     * @param times the value added
+     */
+    public void add(final int key, final int times) {
+        int slot = find(key);
+        if (slots[slot] != 0) {
+            counts[slots[slot] - 1] += times;
+            return;
+        }
+
+        if (size == keys.length) {
+            grow();
+            slot = find(key);
+        }
+
+        keys[size] = key;
+        counts[size] = times;
+        slots[slot] = ++size;
+    }
+
+    /**
+     * Gets the count of a key.
+     *
+     * @param key the key
+     * @return the count, 0 if the key was never added
+     */
+    public int get(final int key) {
+        int position = slots[find(key)];
+        return position == 0 ? 0 : counts[position - 1];
+    }
+
+    /**
+     * Gets the number of different keys.
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets a key, in insertion order.
+     *
+     * @param index the index, less than size
+     * @return the key
+     */
+    public int keyAt(final int index) {
+        return keys[index];
+    }
+
+    /**
+     * Gets the count of the key at an index.
+     *
+     * @param index the index, less than size
+     * @return the count
+     */
+    public int countAt(final int index) {
+        return counts[index];
+    }
+
+    /**
+     * Removes all the keys, keeping the allocated arrays.
+     */
+    public void clear() {
+        Arrays.fill(slots, 0);
+        size = 0;
+    }
+
+    private int find(final int key) {
+        int mask = slots.length - 1;
+        int slot = (key * HASH_MULTIPLIER) & mask;
+        while (slots[slot] != 0 && keys[slots[slot] - 1] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        keys = Arrays.copyOf(keys, 2 * keys.length);
+        counts = Arrays.copyOf(counts, 2 * counts.length);
+        slots = new int[2 * slots.length];
+        for (int i = 0; i < size; i++) {
+            slots[find(keys[i])] = i + 1;
+        }
+    }
+}
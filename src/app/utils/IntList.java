@@ -0,0 +1,82 @@
+package app.utils;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of increasing ints, without boxing. Used as postings list: the ids
+ * are added in increasing order, so membership is a binary search.
+ */
+public final class IntList {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private int[] values = new int[INITIAL_CAPACITY];
+    private int size = 0;
+
+    /**
+     * Adds a value, greater than the last one.
+     *
+     * @param value the value
+     */
+    public void add(final int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, 2 * values.length);
+        }
+
+        values[size++] = value;
+    }
+
+    /**
+     * Gets the number of values.
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets a value.
+     *
+     * @param index the index, less than size
+     * @return the value
+     */
+    public int get(final int index) {
+        return values[index];
+    }
+
+    /**
+     * Gets the last value.
+     *
+     * @return the last value, -1 if the list is empty
+     */
+    public int last() {
+        return size == 0 ? -1 : values[size - 1];
+    }
+
+    /**
+     * Checks if a value is in the list.
+     *
+     * @param value the value
+     * @return true if found
+     */
+    public boolean contains(final int value) {
+        return Arrays.binarySearch(values, 0, size, value) >= 0;
+    }
+
+    /**
+     * Removes a value, if it is in the list.
+     *
+     * @param value the value
+     * @return true if it was found
+     */
+    public boolean remove(final int value) {
+        int index = Arrays.binarySearch(values, 0, size, value);
+        if (index < 0) {
+            return false;
+        }
+
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+        return true;
+    }
+}
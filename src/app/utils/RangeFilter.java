@@ -0,0 +1,68 @@
+package app.utils;
+
+import java.util.Collections;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * A numeric search filter ("&lt;n", "&gt;n" or "n"), parsed once into an inclusive range.
+ */
+public final class RangeFilter {
+    private final long low;
+    private final long high;
+
+    private RangeFilter(final long low, final long high) {
+        this.low = low;
+        this.high = high;
+    }
+
+    /**
+     * Parses a filter.
+     *
+     * @param query the filter, a number with an optional "&lt;" or "&gt;" before it
+     * @return the range
+     */
+    public static RangeFilter parse(final String query) {
+        if (query.startsWith("<")) {
+            return new RangeFilter(Integer.MIN_VALUE, Integer.parseInt(query.substring(1)) - 1L);
+        } else if (query.startsWith(">")) {
+            return new RangeFilter(Integer.parseInt(query.substring(1)) + 1L, Integer.MAX_VALUE);
+        } else {
+            int value = Integer.parseInt(query);
+            return new RangeFilter(value, value);
+        }
+    }
+
+    /**
+     * Checks if a value is in the range.
+     *
+     * @param value the value
+     * @return true if it matches the filter
+     */
+    public boolean matches(final int value) {
+        return low <= value && value <= high;
+    }
+
+    /**
+     * Checks if the range has a single value (an equality filter).
+     *
+     * @return true for a single value
+     */
+    public boolean isSingle() {
+        return low == high;
+    }
+
+    /**
+     * Gets the part of a map with the keys in the range.
+     *
+     * @param map the map, sorted by key
+     * @param <V> the type of the values
+     * @return the view of the entries in range
+     */
+    public <V> NavigableMap<Integer, V> of(final TreeMap<Integer, V> map) {
+        if (low > high) {
+            return Collections.emptyNavigableMap();
+        }
+        return map.subMap((int) low, true, (int) high, true);
+    }
+}
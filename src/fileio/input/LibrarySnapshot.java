@@ -0,0 +1,286 @@
+package fileio.input;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary form of library.json, read without any reflection.
+ *
+ * <p>Layout: magic, version, a string table (varint length + UTF-8 bytes), then the
+ * songs, the podcasts with their episodes and the users. Strings are stored as
+ * varint indexes in the table (0 is null), numbers and list sizes as varints. The
+ * numbers and the tags, which the json may leave out, have a presence mark before
+ * them (a number is a byte, 0 for null, then the varint; the tags size is one more
+ * than the size, 0 for null).
+ */
+public final class LibrarySnapshot {
+    private static final int MAGIC = 0x53504c42;
+    private static final int VERSION = 2;
+    private static final int VARINT_SHIFT = 7;
+    private static final int VARINT_PAYLOAD = 0x7f;
+    private static final int VARINT_MORE = 0x80;
+
+    private LibrarySnapshot() {
+    }
+
+    /**
+     * Converts a library json into a snapshot
+     *
+     * @param args the json file and the snapshot file
+     * @throws IOException in case of exceptions to reading / writing
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length != 2) {
+            System.out.println("Usage: LibrarySnapshot <library.json> <library.bin>");
+            return;
+        }
+        LibraryInput library = new ObjectMapper().readValue(new File(args[0]),
+                                                            LibraryInput.class);
+        write(library, new File(args[1]));
+    }
+
+    /**
+     * Writes the library in the binary format
+     *
+     * @param library the library
+     * @param file the snapshot file
+     * @throws IOException in case of exceptions to writing
+     */
+    public static void write(final LibraryInput library, final File file) throws IOException {
+        Map<String, Integer> indexes = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        for (SongInput song : library.getSongs()) {
+            intern(song.getName(), indexes, strings);
+            intern(song.getAlbum(), indexes, strings);
+            if (song.getTags() != null) {
+                for (String tag : song.getTags()) {
+                    intern(tag, indexes, strings);
+                }
+            }
+            intern(song.getLyrics(), indexes, strings);
+            intern(song.getGenre(), indexes, strings);
+            intern(song.getArtist(), indexes, strings);
+        }
+        for (PodcastInput podcast : library.getPodcasts()) {
+            intern(podcast.getName(), indexes, strings);
+            intern(podcast.getOwner(), indexes, strings);
+            for (EpisodeInput episode : podcast.getEpisodes()) {
+                intern(episode.getName(), indexes, strings);
+                intern(episode.getDescription(), indexes, strings);
+            }
+        }
+        for (UserInput user : library.getUsers()) {
+            intern(user.getUsername(), indexes, strings);
+            intern(user.getCity(), indexes, strings);
+        }
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            writeVarint(out, VERSION);
+
+            writeVarint(out, strings.size());
+            for (String string : strings) {
+                byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                writeVarint(out, bytes.length);
+                out.write(bytes);
+            }
+
+            writeVarint(out, library.getSongs().size());
+            for (SongInput song : library.getSongs()) {
+                writeString(out, song.getName(), indexes);
+                writeNumber(out, song.getDuration());
+                writeString(out, song.getAlbum(), indexes);
+                if (song.getTags() == null) {
+                    writeVarint(out, 0);
+                } else {
+                    writeVarint(out, song.getTags().size() + 1);
+                    for (String tag : song.getTags()) {
+                        writeString(out, tag, indexes);
+                    }
+                }
+                writeString(out, song.getLyrics(), indexes);
+                writeString(out, song.getGenre(), indexes);
+                writeNumber(out, song.getReleaseYear());
+                writeString(out, song.getArtist(), indexes);
+            }
+
+            writeVarint(out, library.getPodcasts().size());
+            for (PodcastInput podcast : library.getPodcasts()) {
+                writeString(out, podcast.getName(), indexes);
+                writeString(out, podcast.getOwner(), indexes);
+                writeVarint(out, podcast.getEpisodes().size());
+                for (EpisodeInput episode : podcast.getEpisodes()) {
+                    writeString(out, episode.getName(), indexes);
+                    writeNumber(out, episode.getDuration());
+                    writeString(out, episode.getDescription(), indexes);
+                }
+            }
+
+            writeVarint(out, library.getUsers().size());
+            for (UserInput user : library.getUsers()) {
+                writeString(out, user.getUsername(), indexes);
+                writeVarint(out, user.getAge());
+                writeString(out, user.getCity(), indexes);
+            }
+        }
+    }
+
+    /**
+     * Reads a snapshot through a memory mapped file
+     *
+     * @param file the snapshot file
+     * @return the library
+     * @throws IOException in case of exceptions to reading or an invalid snapshot
+     */
+    public static LibraryInput read(final File file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        try {
+            if (buffer.getInt() != MAGIC || readVarint(buffer) != VERSION) {
+                throw new IOException("%s is not a library snapshot".formatted(file));
+            }
+            return decode(buffer);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException
+                 | IllegalArgumentException | NegativeArraySizeException e) {
+            // a truncated file or an index out of the string table
+            throw new IOException("%s is a corrupt library snapshot".formatted(file), e);
+        }
+    }
+
+    private static LibraryInput decode(final ByteBuffer buffer) {
+        String[] strings = new String[readVarint(buffer) + 1];
+        for (int i = 1; i < strings.length; i++) {
+            byte[] bytes = new byte[readVarint(buffer)];
+            buffer.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        int songCount = readVarint(buffer);
+        ArrayList<SongInput> songs = new ArrayList<>(songCount);
+        for (int i = 0; i < songCount; i++) {
+            SongInput song = new SongInput();
+            song.setName(strings[readVarint(buffer)]);
+            song.setDuration(readNumber(buffer));
+            song.setAlbum(strings[readVarint(buffer)]);
+            int tagCount = readVarint(buffer) - 1;
+            if (tagCount >= 0) {
+                ArrayList<String> tags = new ArrayList<>(tagCount);
+                for (int j = 0; j < tagCount; j++) {
+                    tags.add(strings[readVarint(buffer)]);
+                }
+                song.setTags(tags);
+            }
+            song.setLyrics(strings[readVarint(buffer)]);
+            song.setGenre(strings[readVarint(buffer)]);
+            song.setReleaseYear(readNumber(buffer));
+            song.setArtist(strings[readVarint(buffer)]);
+            songs.add(song);
+        }
+
+        int podcastCount = readVarint(buffer);
+        ArrayList<PodcastInput> podcasts = new ArrayList<>(podcastCount);
+        for (int i = 0; i < podcastCount; i++) {
+            PodcastInput podcast = new PodcastInput();
+            podcast.setName(strings[readVarint(buffer)]);
+            podcast.setOwner(strings[readVarint(buffer)]);
+            int episodeCount = readVarint(buffer);
+            ArrayList<EpisodeInput> episodes = new ArrayList<>(episodeCount);
+            for (int j = 0; j < episodeCount; j++) {
+                EpisodeInput episode = new EpisodeInput();
+                episode.setName(strings[readVarint(buffer)]);
+                episode.setDuration(readNumber(buffer));
+                episode.setDescription(strings[readVarint(buffer)]);
+                episodes.add(episode);
+            }
+            podcast.setEpisodes(episodes);
+            podcasts.add(podcast);
+        }
+
+        int userCount = readVarint(buffer);
+        ArrayList<UserInput> users = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            UserInput user = new UserInput();
+            user.setUsername(strings[readVarint(buffer)]);
+            user.setAge(readVarint(buffer));
+            user.setCity(strings[readVarint(buffer)]);
+            users.add(user);
+        }
+
+        LibraryInput library = new LibraryInput();
+        library.setSongs(songs);
+        library.setPodcasts(podcasts);
+        library.setUsers(users);
+        return library;
+    }
+
+    private static void intern(final String string, final Map<String, Integer> indexes,
+                               final List<String> strings) {
+        if (string != null && !indexes.containsKey(string)) {
+            strings.add(string);
+            indexes.put(string, strings.size());
+        }
+    }
+
+    private static void writeString(final DataOutputStream out, final String string,
+                                    final Map<String, Integer> indexes) throws IOException {
+        writeVarint(out, string == null ? 0 : indexes.get(string));
+    }
+
+    private static void writeNumber(final DataOutputStream out, final Integer number)
+            throws IOException {
+        if (number == null) {
+            out.writeByte(0);
+        } else {
+            out.writeByte(1);
+            writeVarint(out, number);
+        }
+    }
+
+    private static Integer readNumber(final ByteBuffer buffer) {
+        if (buffer.get() == 0) {
+            return null;
+        }
+        return readVarint(buffer);
+    }
+
+    private static void writeVarint(final DataOutputStream out, final int value)
+            throws IOException {
+        int remaining = value;
+        while ((remaining & ~VARINT_PAYLOAD) != 0) {
+            out.writeByte((remaining & VARINT_PAYLOAD) | VARINT_MORE);
+            remaining >>>= VARINT_SHIFT;
+        }
+        out.writeByte(remaining);
+    }
+
+    private static int readVarint(final ByteBuffer buffer) {
+        int value = 0;
+        int shift = 0;
+        int current;
+        do {
+            current = buffer.get();
+            value |= (current & VARINT_PAYLOAD) << shift;
+            shift += VARINT_SHIFT;
+        } while ((current & VARINT_MORE) != 0);
+        return value;
+    }
+}
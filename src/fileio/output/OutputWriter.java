@@ -0,0 +1,60 @@
+package fileio.output;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Writes the command outputs as a json array, one node at a time, so the
+ * results of a run are never kept in memory.
+ */
+public final class OutputWriter implements Closeable {
+    private final ObjectMapper objectMapper;
+    private final JsonGenerator generator;
+
+    /**
+     * Opens the output file and starts the json array.
+     *
+     * @param file the output file
+     * @param pretty true for the default pretty printer, false for compact output
+     * @throws IOException in case of exceptions to writing
+     */
+    public OutputWriter(final File file, final boolean pretty) throws IOException {
+        objectMapper = new ObjectMapper();
+        // flushing after every node would mean a write call per command
+        objectMapper.disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        ObjectWriter objectWriter = pretty ? objectMapper.writerWithDefaultPrettyPrinter()
+                                           : objectMapper.writer();
+        generator = objectWriter.createGenerator(file, JsonEncoding.UTF8);
+        generator.writeStartArray();
+    }
+
+    /**
+     * Writes the output of a command as the next element of the array.
+     *
+     * @param node the command output
+     * @throws IOException in case of exceptions to writing
+     */
+    public void write(final JsonNode node) throws IOException {
+        objectMapper.writeTree(generator, node);
+    }
+
+    /**
+     * Ends the json array and closes the output file.
+     *
+     * @throws IOException in case of exceptions to writing
+     */
+    @Override
+    public void close() throws IOException {
+        generator.writeEndArray();
+        generator.close();
+    }
+}
@@ -1,33 +1,66 @@
 package main;
 
 import app.Admin;
+import app.Catalog;
 import app.CommandRunner;
-import app.searchBar.SearchBar;
 import checker.Checker;
 import checker.CheckerConstants;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectWriter;
-import com.fasterxml.jackson.databind.node.ArrayNode;
 import fileio.input.CommandInput;
-import fileio.input.LibraryInput;
+import fileio.output.OutputWriter;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public final class Main {
+    private static boolean prettyOutput = true;
+    private static int inboxRetention = Admin.DEFAULT_INBOX_RETENTION;
+    private static Catalog catalog;
+
     private Main() {
     }
 
     /**
      * Call the checker
-     * @param args from command line
+     * @param args from command line, --compact writes the outputs without indentation,
+     *             --parallel N runs the input files on N threads, --inbox N keeps the
+     *             last N unseen notifications of every user
      * @throws IOException in case of exceptions to reading / writing
      */
     public static void main(final String[] args) throws IOException {
+        int threads = 1;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--compact")) {
+                prettyOutput = false;
+            } else if (args[i].equals("--parallel") && i + 1 < args.length) {
+                threads = parsePositive(args[++i]);
+                if (threads < 1) {
+                    printUsage();
+                    return;
+                }
+            } else if (args[i].equals("--inbox") && i + 1 < args.length) {
+                inboxRetention = parsePositive(args[++i]);
+                if (inboxRetention < 1) {
+                    printUsage();
+                    return;
+                }
+            } else {
+                printUsage();
+                return;
+            }
+        }
+
         File directory = new File(CheckerConstants.TESTS_PATH);
         Path path = Paths.get(CheckerConstants.RESULT_PATH);
 
@@ -40,6 +73,10 @@ public final class Main {
         }
         Files.createDirectories(path);
 
+        // every input file has its own session, so the files can run independently
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Void>> runs = new ArrayList<>();
+
         for (File file : Objects.requireNonNull(directory.listFiles())) {
             if (file.getName().startsWith("library")) {
                 continue;
@@ -49,13 +86,89 @@ public final class Main {
             File out = new File(filepath);
             boolean isCreated = out.createNewFile();
             if (isCreated) {
-                action(file.getName(), filepath);
+                runs.add(executor.submit(() -> {
+                    action(file.getName(), filepath);
+                    return null;
+                }));
             }
         }
 
+        executor.shutdown();
+        waitRuns(runs);
+
         Checker.calculateScore();
     }
 
+    // the number given, or 0 if it is not a positive number
+    private static int parsePositive(final String value) {
+        try {
+            return Math.max(Integer.parseInt(value), 0);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage: Main [--compact] [--parallel N] [--inbox N],"
+                           + " with N a positive number");
+    }
+
+    private static void waitRuns(final List<Future<Void>> runs) throws IOException {
+        for (Future<Void> run : runs) {
+            try {
+                run.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException ioException) {
+                    throw ioException;
+                }
+                throw new IOException(e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Gets the library, parsed on the first call and shared by all the runs
+     *
+     * @return the catalog
+     * @throws IOException in case of exceptions to reading
+     */
+    private static synchronized Catalog getCatalog() throws IOException {
+        if (catalog == null) {
+            File json = new File(CheckerConstants.TESTS_PATH + "library/library.json");
+            File snapshot = new File(CheckerConstants.TESTS_PATH + "library/library.bin");
+
+            // the binary snapshot is preferred, unless library.json was edited after it
+            if (snapshot.exists() && json.exists()
+                && snapshot.lastModified() < json.lastModified()) {
+                System.err.println("%s is older than %s, reading %s"
+                                   .formatted(snapshot, json, json));
+                catalog = Catalog.load(json);
+            } else if (snapshot.exists()) {
+                catalog = loadSnapshot(snapshot, json);
+            } else {
+                catalog = Catalog.load(json);
+            }
+        }
+        return catalog;
+    }
+
+    // a snapshot that cannot be read is reported, and the json library read instead
+    private static Catalog loadSnapshot(final File snapshot, final File json)
+            throws IOException {
+        try {
+            return Catalog.load(snapshot);
+        } catch (IOException e) {
+            if (!json.exists()) {
+                throw e;
+            }
+            System.err.println("%s, reading %s".formatted(e.getMessage(), json));
+            return Catalog.load(json);
+        }
+    }
+
     /**
      * @param filePath1 for input file
      * @param filePath2 for output file
@@ -64,100 +177,99 @@ public final class Main {
     public static void action(final String filePath1,
                               final String filePath2) throws IOException {
         ObjectMapper objectMapper = new ObjectMapper();
-        LibraryInput library = objectMapper.readValue(new File(CheckerConstants.TESTS_PATH
-                                                               + "library/library.json"),
-                                                               LibraryInput.class);
-        CommandInput[] commands = objectMapper.readValue(new File(CheckerConstants.TESTS_PATH
-                                                                  + filePath1),
-                                                                  CommandInput[].class);
-        // filePath1
-        ArrayNode outputs = objectMapper.createArrayNode();
-
-        Admin admin = Admin.getInstance();
-        SearchBar.updateAdmin();
-        admin.setUsers(library.getUsers());
-
-        admin.initializeObservers();
-
-        admin.setSongs(library.getSongs());
-        admin.setAd();
-
-        admin.setPodcasts(library.getPodcasts());
-        CommandRunner.updateAdmin();
-
-        for (CommandInput command : commands) {
-            admin.updateTimestamp(command.getTimestamp());
-
-            String commandName = command.getCommand();
-
-            switch (commandName) {
-                case "search" -> outputs.add(CommandRunner.search(command));
-                case "select" -> outputs.add(CommandRunner.select(command));
-                case "load" -> outputs.add(CommandRunner.load(command));
-                case "playPause" -> outputs.add(CommandRunner.playPause(command));
-                case "repeat" -> outputs.add(CommandRunner.repeat(command));
-                case "shuffle" -> outputs.add(CommandRunner.shuffle(command));
-                case "forward" -> outputs.add(CommandRunner.forward(command));
-                case "backward" -> outputs.add(CommandRunner.backward(command));
-                case "like" -> outputs.add(CommandRunner.like(command));
-                case "next" -> outputs.add(CommandRunner.next(command));
-                case "prev" -> outputs.add(CommandRunner.prev(command));
-                case "createPlaylist" -> outputs.add(CommandRunner.createPlaylist(command));
-                case "addRemoveInPlaylist" -> outputs.add(CommandRunner
-                                                     .addRemoveInPlaylist(command));
-                case "switchVisibility" -> outputs.add(CommandRunner.switchVisibility(command));
-                case "showPlaylists" -> outputs.add(CommandRunner.showPlaylists(command));
-                case "follow" -> outputs.add(CommandRunner.follow(command));
-                case "status" -> outputs.add(CommandRunner.status(command));
-                case "showPreferredSongs" -> outputs.add(CommandRunner.showLikedSongs(command));
-                case "getPreferredGenre" -> outputs.add(CommandRunner.getPreferredGenre(command));
-                case "getTop5Songs" -> outputs.add(CommandRunner.getTop5Songs(command));
-                case "getTop5Playlists" -> outputs.add(CommandRunner.getTop5Playlists(command));
-                case "switchConnectionStatus" -> outputs.add(CommandRunner
-                                                        .switchConnectionStatus(command));
-                case "addUser" -> outputs.add(CommandRunner.addUser(command));
-                case "deleteUser" -> outputs.add(CommandRunner.deleteUser(command));
-                case "addPodcast" -> outputs.add(CommandRunner.addPodcast(command));
-                case "removePodcast" -> outputs.add(CommandRunner.removePodcast(command));
-                case "addAnnouncement" -> outputs.add(CommandRunner.addAnnouncement(command));
-                case "removeAnnouncement" -> outputs.add(CommandRunner
-                                                    .removeAnnouncement(command));
-                case "addAlbum" -> outputs.add(CommandRunner.addAlbum(command));
-                case "removeAlbum" -> outputs.add(CommandRunner.removeAlbum(command));
-                case "addEvent" -> outputs.add(CommandRunner.addEvent(command));
-                case "removeEvent" -> outputs.add(CommandRunner.removeEvent(command));
-                case "addMerch" -> outputs.add(CommandRunner.addMerch(command));
-                case "changePage" -> outputs.add(CommandRunner.changePage(command));
-                case "printCurrentPage" -> outputs.add(CommandRunner.printCurrentPage(command));
-                case "getTop5Albums" -> outputs.add(CommandRunner.getTop5AlbumList(command));
-                case "getTop5Artists" -> outputs.add(CommandRunner.getTop5ArtistList(command));
-                case "getAllUsers" -> outputs.add(CommandRunner.getAllUsers(command));
-                case "getOnlineUsers" -> outputs.add(CommandRunner.getOnlineUsers(command));
-                case "showAlbums" -> outputs.add(CommandRunner.showAlbums(command));
-                case "showPodcasts" -> outputs.add(CommandRunner.showPodcasts(command));
-                case "wrapped" -> outputs.add(CommandRunner.wrapped(command));
-                case "buyPremium" -> outputs.add(CommandRunner.buyPremium(command));
-                case "cancelPremium" -> outputs.add(CommandRunner.cancelPremium(command));
-                case "adBreak" -> outputs.add(CommandRunner.adBreak(command));
-                case "subscribe" -> outputs.add(CommandRunner.subscribe(command));
-                case "getNotifications" -> outputs.add(CommandRunner.getNotifications(command));
-                case "buyMerch" -> outputs.add(CommandRunner.buyMerch(command));
-                case "seeMerch" -> outputs.add(CommandRunner.seeMerch(command));
-                case "updateRecommendations" -> outputs.add(CommandRunner
-                                                .updateRecommendations(command));
-                case "previousPage" -> outputs.add(CommandRunner.previousPage(command));
-                case "loadRecommendations" -> outputs.add(CommandRunner
-                                                .loadRecommendations(command));
-                case "nextPage" -> outputs.add(CommandRunner.nextPage(command));
-                default -> System.out.println("Invalid command " + commandName);
+        Admin admin = new Admin(inboxRetention);
+        admin.loadCatalog(getCatalog());
+        CommandRunner commandRunner = new CommandRunner(admin);
+
+        // commands are read one at a time, so the input file is never fully materialized
+        try (admin;
+             MappingIterator<CommandInput> commands = objectMapper.readerFor(CommandInput.class)
+                .readValues(new File(CheckerConstants.TESTS_PATH + filePath1));
+             OutputWriter output = new OutputWriter(new File(filePath2), prettyOutput)) {
+            while (commands.hasNextValue()) {
+                executeCommand(admin, commandRunner, commands.nextValue(), output);
             }
+
+            output.write(admin.endProgram());
         }
+    }
 
-        outputs.add(admin.endProgram());
+    /**
+     * Runs a single command and writes its output
+     *
+     * @param admin the admin of the current run
+     * @param commandRunner the command runner of the current run
+     * @param command the command input
+     * @param output the output of the current run
+     * @throws IOException in case of exceptions to writing
+     */
+    private static void executeCommand(final Admin admin, final CommandRunner commandRunner,
+                                       final CommandInput command,
+                                       final OutputWriter output) throws IOException {
+        admin.updateTimestamp(command.getTimestamp());
 
-        ObjectWriter objectWriter = objectMapper.writerWithDefaultPrettyPrinter();
-        objectWriter.writeValue(new File(filePath2), outputs);
+        String commandName = command.getCommand();
 
-        Admin.resetInstance();
+        switch (commandName) {
+            case "search" -> output.write(commandRunner.search(command));
+            case "select" -> output.write(commandRunner.select(command));
+            case "load" -> output.write(commandRunner.load(command));
+            case "playPause" -> output.write(commandRunner.playPause(command));
+            case "repeat" -> output.write(commandRunner.repeat(command));
+            case "shuffle" -> output.write(commandRunner.shuffle(command));
+            case "forward" -> output.write(commandRunner.forward(command));
+            case "backward" -> output.write(commandRunner.backward(command));
+            case "like" -> output.write(commandRunner.like(command));
+            case "next" -> output.write(commandRunner.next(command));
+            case "prev" -> output.write(commandRunner.prev(command));
+            case "createPlaylist" -> output.write(commandRunner.createPlaylist(command));
+            case "addRemoveInPlaylist" -> output.write(commandRunner
+                                                 .addRemoveInPlaylist(command));
+            case "switchVisibility" -> output.write(commandRunner.switchVisibility(command));
+            case "showPlaylists" -> output.write(commandRunner.showPlaylists(command));
+            case "follow" -> output.write(commandRunner.follow(command));
+            case "status" -> output.write(commandRunner.status(command));
+            case "showPreferredSongs" -> output.write(commandRunner.showLikedSongs(command));
+            case "getPreferredGenre" -> output.write(commandRunner.getPreferredGenre(command));
+            case "getTop5Songs" -> output.write(commandRunner.getTop5Songs(command));
+            case "getTop5Playlists" -> output.write(commandRunner.getTop5Playlists(command));
+            case "switchConnectionStatus" -> output.write(commandRunner
+                                                    .switchConnectionStatus(command));
+            case "addUser" -> output.write(commandRunner.addUser(command));
+            case "deleteUser" -> output.write(commandRunner.deleteUser(command));
+            case "addPodcast" -> output.write(commandRunner.addPodcast(command));
+            case "removePodcast" -> output.write(commandRunner.removePodcast(command));
+            case "addAnnouncement" -> output.write(commandRunner.addAnnouncement(command));
+            case "removeAnnouncement" -> output.write(commandRunner
+                                                .removeAnnouncement(command));
+            case "addAlbum" -> output.write(commandRunner.addAlbum(command));
+            case "removeAlbum" -> output.write(commandRunner.removeAlbum(command));
+            case "addEvent" -> output.write(commandRunner.addEvent(command));
+            case "removeEvent" -> output.write(commandRunner.removeEvent(command));
+            case "addMerch" -> output.write(commandRunner.addMerch(command));
+            case "changePage" -> output.write(commandRunner.changePage(command));
+            case "printCurrentPage" -> output.write(commandRunner.printCurrentPage(command));
+            case "getTop5Albums" -> output.write(commandRunner.getTop5AlbumList(command));
+            case "getTop5Artists" -> output.write(commandRunner.getTop5ArtistList(command));
+            case "getAllUsers" -> output.write(commandRunner.getAllUsers(command));
+            case "getOnlineUsers" -> output.write(commandRunner.getOnlineUsers(command));
+            case "showAlbums" -> output.write(commandRunner.showAlbums(command));
+            case "showPodcasts" -> output.write(commandRunner.showPodcasts(command));
+            case "wrapped" -> output.write(commandRunner.wrapped(command));
+            case "buyPremium" -> output.write(commandRunner.buyPremium(command));
+            case "cancelPremium" -> output.write(commandRunner.cancelPremium(command));
+            case "adBreak" -> output.write(commandRunner.adBreak(command));
+            case "subscribe" -> output.write(commandRunner.subscribe(command));
+            case "getNotifications" -> output.write(commandRunner.getNotifications(command));
+            case "buyMerch" -> output.write(commandRunner.buyMerch(command));
+            case "seeMerch" -> output.write(commandRunner.seeMerch(command));
+            case "updateRecommendations" -> output.write(commandRunner
+                                            .updateRecommendations(command));
+            case "previousPage" -> output.write(commandRunner.previousPage(command));
+            case "loadRecommendations" -> output.write(commandRunner
+                                            .loadRecommendations(command));
+            case "nextPage" -> output.write(commandRunner.nextPage(command));
+            default -> System.out.println("Invalid command " + commandName);
+        }
     }
 }